@@ -0,0 +1,44 @@
+package com.cookBook.App.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.MessageChannel;
+
+// Multi-node WebSocket messaging (app.websocket.broker=redis): every node keeps its in-memory
+// broker and the relay forwards broker traffic between nodes over Redis pub/sub
+@Configuration
+@ConditionalOnProperty(name = "app.websocket.broker", havingValue = "redis")
+public class BrokerRelayConfig {
+
+    @Bean
+    public RedisMessageListenerContainer brokerRelayListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        // Dispatching on the subscription thread keeps relayed messages in publish order; the
+        // relay interceptor only enqueues there and delivers on its own thread
+        container.setTaskExecutor(new SyncTaskExecutor());
+        return container;
+    }
+
+    @Bean
+    public BrokerRelayTransport brokerRelayTransport(StringRedisTemplate redisTemplate,
+                                                     RedisMessageListenerContainer brokerRelayListenerContainer,
+                                                     @Value("${app.websocket.relay-channel:cookbook:broker-relay}") String channel) {
+        return new RedisBrokerRelayTransport(redisTemplate, brokerRelayListenerContainer, channel);
+    }
+
+    @Bean
+    public BrokerRelayInterceptor brokerRelayInterceptor(BrokerRelayTransport brokerRelayTransport,
+                                                         @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+                                                         @Value("${app.websocket.relay-queue-capacity:10000}") int queueCapacity) {
+        return new BrokerRelayInterceptor(brokerRelayTransport, brokerChannel, queueCapacity);
+    }
+}
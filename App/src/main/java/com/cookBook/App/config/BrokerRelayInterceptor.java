@@ -0,0 +1,155 @@
+package com.cookBook.App.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.MimeType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Relays broker-bound /topic/** and /user/** messages to the other nodes of the cluster.
+// Messages are still delivered by the local broker as usual (local short-circuit) and also
+// published with this node's id; each node re-injects the messages of other nodes into its own
+// broker channel and drops its own. /user/** messages are resolved against the sessions of the
+// receiving node, so they reach the user wherever they are connected.
+// Ordering: messages sent by one node to a destination reach each subscriber, on every node, in
+// the order they were sent. There is no ordering between messages sent by different nodes.
+// Redis is never on the send path: publishing and re-injecting each run on their own bounded
+// single-thread executor (one thread keeps the order). When Redis is slow or down and a queue
+// fills up, further messages are dropped for the other nodes and logged; local delivery goes on.
+public class BrokerRelayInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrokerRelayInterceptor.class);
+
+    static final String RELAYED_FROM_HEADER = "relayedFrom";
+
+    private record Envelope(String node, String destination, String contentType,
+                            Map<String, List<String>> nativeHeaders, byte[] payload) {
+    }
+
+    private final BrokerRelayTransport transport;
+    private final MessageChannel brokerChannel;
+    private final Executor publisher;
+    private final Executor receiver;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public BrokerRelayInterceptor(BrokerRelayTransport transport, MessageChannel brokerChannel, int queueCapacity) {
+        this(transport, brokerChannel, singleThread("broker-relay-publish", queueCapacity),
+                singleThread("broker-relay-receive", queueCapacity));
+    }
+
+    BrokerRelayInterceptor(BrokerRelayTransport transport, MessageChannel brokerChannel, Executor publisher, Executor receiver) {
+        this.transport = transport;
+        this.brokerChannel = brokerChannel;
+        this.publisher = publisher;
+        this.receiver = receiver;
+        transport.subscribe(this::onRelayed);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        if (accessor == null || accessor.getMessageType() != SimpMessageType.MESSAGE
+                || accessor.getHeader(RELAYED_FROM_HEADER) != null || !isRelayed(accessor.getDestination())
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        String destination = accessor.getDestination();
+        try {
+            MimeType contentType = accessor.getContentType();
+            String envelope = objectMapper.writeValueAsString(new Envelope(nodeId, destination,
+                    contentType != null ? contentType.toString() : null, accessor.toNativeHeaderMap(), payload));
+            publisher.execute(() -> publish(envelope, destination));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Relay queue full, message to {} not relayed to other nodes", destination);
+        } catch (Exception e) {
+            // Local subscribers still get the message
+            logger.error("Failed to relay message to {}: {}", destination, e.getMessage());
+        }
+        return message;
+    }
+
+    private void publish(String envelope, String destination) {
+        try {
+            transport.publish(envelope);
+        } catch (Exception e) {
+            logger.error("Failed to relay message to {}: {}", destination, e.getMessage());
+        }
+    }
+
+    // Called on the transport's listener thread; delivery to the broker happens on the receiver
+    private void onRelayed(String raw) {
+        try {
+            receiver.execute(() -> deliver(raw));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Relay receive queue full, dropping a message from another node");
+        }
+    }
+
+    private void deliver(String raw) {
+        Envelope envelope;
+        try {
+            envelope = objectMapper.readValue(raw, Envelope.class);
+        } catch (JsonProcessingException e) {
+            logger.error("Dropping malformed relayed message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(envelope.node())) {
+            return; // Already delivered locally
+        }
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination());
+        if (envelope.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+        }
+        if (envelope.nativeHeaders() != null) {
+            envelope.nativeHeaders().forEach((name, values) -> values.forEach(value -> accessor.addNativeHeader(name, value)));
+        }
+        accessor.setHeader(RELAYED_FROM_HEADER, envelope.node());
+        brokerChannel.send(MessageBuilder.createMessage(envelope.payload(), accessor.getMessageHeaders()));
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    // Called by Spring on context close; messages still queued are dropped
+    public void shutdown() {
+        if (publisher instanceof ExecutorService service) {
+            service.shutdown();
+        }
+        if (receiver instanceof ExecutorService service) {
+            service.shutdown();
+        }
+    }
+
+    private static ExecutorService singleThread(String name, int queueCapacity) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static boolean isRelayed(String destination) {
+        return destination != null && (destination.startsWith("/topic/") || destination.startsWith("/user/"));
+    }
+}
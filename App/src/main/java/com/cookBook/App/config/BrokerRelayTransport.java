@@ -0,0 +1,12 @@
+package com.cookBook.App.config;
+
+import java.util.function.Consumer;
+
+// Cluster-wide pub/sub channel the broker relay publishes to. Implementations must deliver the
+// messages of one publisher to each subscriber in publish order.
+public interface BrokerRelayTransport {
+
+    void publish(String message);
+
+    void subscribe(Consumer<String> listener);
+}
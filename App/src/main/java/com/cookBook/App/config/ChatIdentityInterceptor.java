@@ -0,0 +1,56 @@
+package com.cookBook.App.config;
+
+import com.cookBook.App.model.User;
+import com.cookBook.App.service.ChatSessionRegistry;
+import com.cookBook.App.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+
+// Resolves the chat sender once per WebSocket session, at STOMP CONNECT, and keeps the id and
+// name in the session attributes so chat frames don't each have to look the user up
+@Component
+public class ChatIdentityInterceptor implements ChannelInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatIdentityInterceptor.class);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ChatSessionRegistry chatSessionRegistry;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        if (accessor.getCommand() == StompCommand.CONNECT) {
+            Principal principal = accessor.getUser();
+            if (principal != null && accessor.getSessionAttributes() != null) {
+                try {
+                    User user = userService.findByProviderId(principal.getName());
+                    if (user != null) {
+                        chatSessionRegistry.register(accessor.getSessionId(), accessor.getSessionAttributes(), user);
+                    }
+                } catch (Exception e) {
+                    // Frames fall back to looking the sender up
+                    logger.warn("Could not resolve chat sender for {}: {}", principal.getName(), e.getMessage());
+                }
+            }
+        } else if (accessor.getCommand() == StompCommand.DISCONNECT) {
+            chatSessionRegistry.unregister(accessor.getSessionId());
+        }
+        return message;
+    }
+}
@@ -0,0 +1,63 @@
+package com.cookBook.App.config;
+
+import com.cookBook.App.model.Like;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.scheduling.annotation.Async;
+
+import java.util.Set;
+
+// Creates the indexes declared with @Indexed/@CompoundIndex once the app is up.
+// Done in the background instead of spring.data.mongodb.auto-index-creation so startup
+// doesn't block (or fail) when the cluster is slow to answer. Like indexes are left to
+// LikeMigration, which is started from here (see IndexesEnsuredEvent) once the rest are done.
+@Configuration
+public class MongoIndexConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Entities whose indexes can only be built after their data is migrated
+    private static final Set<Class<?>> MIGRATED_ENTITIES = Set.of(Like.class);
+
+    // Published on the index thread after ensureIndexes; listeners run in order, after all indexes above exist
+    public static class IndexesEnsuredEvent {
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        IndexResolver resolver = IndexResolver.create(mappingContext);
+        for (MongoPersistentEntity<?> entity : mappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class) || MIGRATED_ENTITIES.contains(entity.getType())) {
+                continue;
+            }
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+                resolver.resolveIndexFor(entity.getType()).forEach(indexOps::ensureIndex);
+            } catch (Exception e) {
+                logger.error("Failed to ensure indexes for {}: {}", entity.getCollection(), e.getMessage());
+            }
+        }
+        eventPublisher.publishEvent(new IndexesEnsuredEvent());
+    }
+}
@@ -0,0 +1,36 @@
+package com.cookBook.App.config;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+// Relays over one Redis pub/sub channel. Redis delivers the messages published on a connection
+// to each subscriber in order; the listener container must dispatch synchronously to keep it.
+public class RedisBrokerRelayTransport implements BrokerRelayTransport {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ChannelTopic topic;
+
+    public RedisBrokerRelayTransport(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.topic = new ChannelTopic(channel);
+    }
+
+    @Override
+    public void publish(String message) {
+        redisTemplate.convertAndSend(topic.getTopic(), message);
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (Message message, byte[] pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                topic);
+    }
+}
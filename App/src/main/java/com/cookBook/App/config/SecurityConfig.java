@@ -128,13 +128,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.logout.LogoutHandler;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.logout.SecurityContextLogoutHandler;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -152,6 +156,10 @@ public class SecurityConfig {
     @Value("${frontend.url:http://localhost:5173}")
     private String frontendUrl;
 
+    // Metrics reveal internals, so the actuator only answers monitoring hosts, not every logged-in user
+    @Value("${app.actuator.allowed-addresses:127.0.0.1,::1}")
+    private List<String> actuatorAddresses;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -163,6 +171,7 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/login", "/error", "/api/auth/user").permitAll()
+                        .requestMatchers("/actuator/**").access(fromAddresses(actuatorAddresses))
                         .requestMatchers("/user/profile", "/logout", "/messages/**").authenticated() // Add /messages/**
                         .anyRequest().authenticated()
                 )
@@ -200,6 +209,13 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Grants requests whose remote address is one of the given IPs or CIDR ranges
+    private static AuthorizationManager<RequestAuthorizationContext> fromAddresses(List<String> addresses) {
+        List<IpAddressMatcher> matchers = addresses.stream().map(String::trim).map(IpAddressMatcher::new).toList();
+        return (authentication, context) -> new AuthorizationDecision(
+                matchers.stream().anyMatch(matcher -> matcher.matches(context.getRequest())));
+    }
+
     @Bean
     public LogoutHandler logoutHandler() {
         return new SecurityContextLogoutHandler();
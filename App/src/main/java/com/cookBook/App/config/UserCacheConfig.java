@@ -0,0 +1,38 @@
+package com.cookBook.App.config;
+
+import com.cookBook.App.service.RedisSharedUserCache;
+import com.cookBook.App.service.SharedUserCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+// Shared Redis tier for UserCache (app.cache.redis.enabled=true); without it each node only has its local tier
+@Configuration
+@ConditionalOnProperty(name = "app.cache.redis.enabled", havingValue = "true")
+public class UserCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer userCacheListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    public SharedUserCache sharedUserCache(StringRedisTemplate redisTemplate,
+                                           RedisMessageListenerContainer userCacheListenerContainer,
+                                           ObjectMapper objectMapper,
+                                           @Value("${app.cache.redis.eviction-channel:cookbook:user-evictions}") String evictionChannel,
+                                           @Value("${app.cache.redis.ttl-seconds:600}") long ttlSeconds,
+                                           @Value("${app.cache.redis.tombstone-seconds:30}") long tombstoneSeconds) {
+        return new RedisSharedUserCache(redisTemplate, userCacheListenerContainer, objectMapper, evictionChannel,
+                Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(tombstoneSeconds));
+    }
+}
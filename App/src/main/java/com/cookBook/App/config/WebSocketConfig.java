@@ -1,6 +1,9 @@
 package com.cookBook.App.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.security.config.annotation.web.messaging.MessageSecurityMetadataSourceRegistry;
 import org.springframework.security.config.annotation.web.socket.AbstractSecurityWebSocketMessageBrokerConfigurer;
@@ -11,10 +14,20 @@ import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig extends AbstractSecurityWebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private ChatIdentityInterceptor chatIdentityInterceptor;
+
+    // Only present with app.websocket.broker=redis
+    @Autowired
+    private ObjectProvider<BrokerRelayInterceptor> brokerRelayInterceptor;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic"); // Enable simple in-memory broker
+        config.enableSimpleBroker("/topic", "/queue"); // Enable simple in-memory broker
         config.setApplicationDestinationPrefixes("/app"); // Prefix for client messages
+        config.setUserDestinationPrefix("/user"); // Per-user destinations, e.g. /user/queue/notifications
+        config.setPreservePublishOrder(true); // Keep per-session delivery in the order messages reach the broker
+        brokerRelayInterceptor.ifAvailable(relay -> config.configureBrokerChannel().interceptors(relay));
     }
 
     @Override
@@ -28,7 +41,15 @@ public class WebSocketConfig extends AbstractSecurityWebSocketMessageBrokerConfi
     protected void configureInbound(MessageSecurityMetadataSourceRegistry messages) {
         messages
                 .simpDestMatchers("/app/**").authenticated() // Require authentication for sending messages
-                .simpSubscribeDestMatchers("/topic/**").authenticated(); // Require authentication for subscribing
+                .simpSubscribeDestMatchers("/topic/**").authenticated() // Require authentication for subscribing
+                .simpSubscribeDestMatchers("/user/**").authenticated()
+                .simpSubscribeDestMatchers("/queue/**").denyAll(); // Only reachable through /user/queue/**
+    }
+
+    // Runs after the security interceptors, so the CONNECT frame already carries the principal
+    @Override
+    protected void customizeClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(chatIdentityInterceptor);
     }
 
     @Override
@@ -5,6 +5,7 @@ import com.cookBook.App.service.ChatService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -19,14 +20,14 @@ public class ChatController {
     private ChatService chatService;
 
     @MessageMapping("/sendMessage")
-    public void sendMessage(@Payload String content) {
+    public void sendMessage(@Payload String content, SimpMessageHeaderAccessor headerAccessor) {
         try {
             String principal = SecurityContextHolder.getContext().getAuthentication().getName();
             if (principal == null || principal.trim().isEmpty()) {
                 throw new IllegalArgumentException("Authentication required");
             }
             System.out.println("Received message from " + principal + ": " + content);
-            chatService.sendMessage(principal, content);
+            chatService.sendMessage(chatService.senderFor(principal, headerAccessor.getSessionAttributes()), content);
         } catch (Exception e) {
             System.err.println("Error processing message: " + e.getMessage());
             e.printStackTrace();
@@ -35,13 +36,14 @@ public class ChatController {
     }
 
     @MessageMapping("/updateMessage")
-    public void updateMessage(@Payload UpdateMessagePayload payload) {
+    public void updateMessage(@Payload UpdateMessagePayload payload, SimpMessageHeaderAccessor headerAccessor) {
         try {
             String principal = SecurityContextHolder.getContext().getAuthentication().getName();
             if (principal == null || principal.trim().isEmpty()) {
                 throw new IllegalArgumentException("Authentication required");
             }
-            chatService.updateMessage(payload.getMessageId(), principal, payload.getContent());
+            chatService.updateMessage(payload.getMessageId(), chatService.senderFor(principal, headerAccessor.getSessionAttributes()),
+                    payload.getContent());
         } catch (Exception e) {
             System.err.println("Error updating message: " + e.getMessage());
             e.printStackTrace();
@@ -50,14 +52,14 @@ public class ChatController {
     }
 
     @MessageMapping("/deleteMessage")
-    public void deleteMessage(@Payload String messageId) {
+    public void deleteMessage(@Payload String messageId, SimpMessageHeaderAccessor headerAccessor) {
         try {
             String principal = SecurityContextHolder.getContext().getAuthentication().getName();
             if (principal == null || principal.trim().isEmpty()) {
                 throw new IllegalArgumentException("Authentication required");
             }
             System.out.println("Attempting to delete message: " + messageId + " by user: " + principal);
-            chatService.deleteMessage(messageId, principal);
+            chatService.deleteMessage(messageId, chatService.senderFor(principal, headerAccessor.getSessionAttributes()));
         } catch (Exception e) {
             System.err.println("Error deleting message: " + e.getMessage());
             e.printStackTrace();
@@ -67,8 +69,9 @@ public class ChatController {
 
     @GetMapping("/history")
     @PreAuthorize("isAuthenticated()")
-    public List<ChatMessage> getChatHistory() {
-        return chatService.getRecentMessages();
+    public List<ChatMessage> getChatHistory(@RequestParam(required = false) String before,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        return chatService.getHistory(before, Math.max(1, Math.min(limit, ChatService.MAX_HISTORY_PAGE)));
     }
 }
 
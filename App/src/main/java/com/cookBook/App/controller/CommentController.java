@@ -1,49 +1,62 @@
 package com.cookBook.App.controller;
 
 import com.cookBook.App.model.Comment;
-import com.cookBook.App.model.NotificationMessage;
+import com.cookBook.App.model.CursorPage;
 import com.cookBook.App.repository.CommentRepository;
 import com.cookBook.App.repository.PostRepository;
+import com.cookBook.App.service.CursorCodec;
+import com.cookBook.App.service.InteractionService;
+import com.cookBook.App.service.NotificationService;
+import com.cookBook.App.service.UserService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import java.util.Map;
-import java.util.stream.Collectors;
-import com.cookBook.App.model.Post;
 
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/comments")
 @CrossOrigin(origins = "*")
 public class CommentController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CommentRepository commentRepo;
-    private final SimpMessagingTemplate messagingTemplate;
     private final PostRepository postRepository;
+    private final InteractionService interactionService;
+    private final NotificationService notificationService;
+    private final UserService userService;
 
 
-    public CommentController(CommentRepository commentRepo, SimpMessagingTemplate messagingTemplate, PostRepository postRepository) {
+    public CommentController(CommentRepository commentRepo, PostRepository postRepository,
+                             InteractionService interactionService, NotificationService notificationService,
+                             UserService userService) {
         this.commentRepo = commentRepo;
-        this.messagingTemplate = messagingTemplate;
         this.postRepository = postRepository;
+        this.interactionService = interactionService;
+        this.notificationService = notificationService;
+        this.userService = userService;
     }
 
     // ✅ Create comment
     @PostMapping
     public ResponseEntity<Comment> createComment(@RequestBody Comment comment) {
+        String principal = SecurityContextHolder.getContext().getAuthentication().getName();
+        comment.setUserId(userService.findByProviderId(principal).getId());
         comment.setTimestamp(LocalDateTime.now());
+        comment.setCreatedAt(comment.getTimestamp());
         Comment savedComment = commentRepo.save(comment);
+        if (comment.getPostId() != null) {
+            postRepository.incrementCommentCount(comment.getPostId(), 1);
+            interactionService.recordComment(savedComment);
+        }
 
-        // Send WebSocket notification
-        NotificationMessage notification = new NotificationMessage(
-                "COMMENT",
-                comment.getUser(),  // assuming Comment has getAuthor()
-                comment.getText()
-        );
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
+        // Notify the post's owner and tagged friends
+        notificationService.onComment(savedComment);
 
         return ResponseEntity.ok(savedComment);
     }
@@ -51,9 +64,40 @@ public class CommentController {
 
 
     // 📄 Get comments by postId
+    // Deprecated: capped at the first MAX_PAGE_SIZE comments so hot threads aren't loaded whole; use /{postId}/page
+    @Deprecated
     @GetMapping("/{postId}")
     public ResponseEntity<List<Comment>> getComments(@PathVariable String postId) {
-        return ResponseEntity.ok(commentRepo.findByPostId(postId));
+        return ResponseEntity.ok(commentRepo.findThreadPage(postId, null, null, MAX_PAGE_SIZE));
+    }
+
+    // Oldest-first page of a post's comments; pass nextCursor back as "after" for the next page
+    @GetMapping("/{postId}/page")
+    public ResponseEntity<CursorPage<Comment>> getCommentPage(
+            @PathVariable String postId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime afterTimestamp = null;
+        String afterId = null;
+        if (after != null && !after.isBlank()) {
+            try {
+                String[] parts = CursorCodec.decode(after, 2);
+                afterTimestamp = CursorCodec.decodeTimestamp(parts[0]);
+                afterId = parts[1];
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+
+        List<Comment> comments = commentRepo.findThreadPage(postId, afterTimestamp, afterId, size + 1);
+        String nextCursor = null;
+        if (comments.size() > size) {
+            comments = comments.subList(0, size);
+            Comment last = comments.get(size - 1);
+            nextCursor = CursorCodec.encode(CursorCodec.encodeTimestamp(last.getTimestamp()), last.getId());
+        }
+        return ResponseEntity.ok(new CursorPage<>(comments, nextCursor));
     }
 
     @PutMapping("/{id}")
@@ -61,6 +105,10 @@ public class CommentController {
         return commentRepo.findById(id)
                 .map(comment -> {
                     comment.setText(updatedComment.getText());
+                    // Comments written before createdAt existed keep their original time in it
+                    if (comment.getCreatedAt() == null) {
+                        comment.setCreatedAt(comment.getTimestamp());
+                    }
                     comment.setTimestamp(LocalDateTime.now());
                     return ResponseEntity.ok(commentRepo.save(comment));
                 })
@@ -68,33 +116,29 @@ public class CommentController {
     }
 
 
-    // 🧑‍🤝‍🧑 Get close friends by userId (based on comment count)
+    // 🧑‍🤝‍🧑 Get close friends by userName (ranked by time-decayed comments and likes on their posts)
     @GetMapping("/close-friends/by-user/{userName}")
-    public ResponseEntity<?> getCloseFriendsByUsername(@PathVariable String userName) {
-        List<Post> userPosts = postRepository.findByUserName(userName); // new field
-
-        List<String> postIds = userPosts.stream().map(Post::getId).toList();
-        List<Comment> allComments = commentRepo.findByPostIdIn(postIds);
-
-        Map<String, Long> commentCounts = allComments.stream()
-                .filter(comment -> !comment.getUser().equals(userName))
-                .collect(Collectors.groupingBy(Comment::getUser, Collectors.counting()));
-
-        List<Map.Entry<String, Long>> sortedFriends = commentCounts.entrySet().stream()
-                .sorted((e1, e2) -> Long.compare(e2.getValue(), e1.getValue()))
+    public ResponseEntity<?> getCloseFriendsByUsername(@PathVariable String userName,
+                                                       @RequestParam(defaultValue = "20") int limit) {
+        List<Map.Entry<String, Long>> friends = interactionService
+                .topInteractors(userName, Math.max(1, Math.min(limit, MAX_PAGE_SIZE))).stream()
+                .map(interaction -> Map.entry(interaction.getInteractor(), interaction.getComments()))
                 .toList();
-
-        return ResponseEntity.ok(sortedFriends);
+        return ResponseEntity.ok(friends);
     }
 
 
 
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteComment(@PathVariable String id) {
-        if (!commentRepo.existsById(id)) {
+        Optional<Comment> removed = commentRepo.removeComment(id);
+        if (removed.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        commentRepo.deleteById(id);
+        if (removed.get().getPostId() != null) {
+            postRepository.incrementCommentCount(removed.get().getPostId(), -1);
+            interactionService.removeComment(removed.get());
+        }
         return ResponseEntity.ok().build();
     }
 }
@@ -1,18 +1,18 @@
 package com.cookBook.App.controller;
 
 import com.cookBook.App.model.Like;
-import com.cookBook.App.model.NotificationMessage;
 import com.cookBook.App.model.Post;
 import com.cookBook.App.repository.LikeRepository;
 import com.cookBook.App.repository.PostRepository;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import com.cookBook.App.service.InteractionService;
+import com.cookBook.App.service.LikeIngestionBuffer;
+import com.cookBook.App.service.PostService;
+import com.cookBook.App.service.RecommendationService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/likes")
@@ -21,43 +21,35 @@ public class LikeController {
 
     private final LikeRepository likeRepo;
     private final PostRepository postRepo;
-    private final SimpMessagingTemplate messagingTemplate;
-
-    public LikeController(LikeRepository likeRepo, PostRepository postRepo, SimpMessagingTemplate messagingTemplate) {
+    private final RecommendationService recommendationService;
+    private final PostService postService;
+    private final LikeIngestionBuffer likeIngestionBuffer;
+    private final InteractionService interactionService;
+
+    public LikeController(LikeRepository likeRepo, PostRepository postRepo, RecommendationService recommendationService,
+                          PostService postService, LikeIngestionBuffer likeIngestionBuffer,
+                          InteractionService interactionService) {
         this.likeRepo = likeRepo;
         this.postRepo = postRepo;
-        this.messagingTemplate = messagingTemplate;
+        this.recommendationService = recommendationService;
+        this.postService = postService;
+        this.likeIngestionBuffer = likeIngestionBuffer;
+        this.interactionService = interactionService;
     }
 
+    // Likes are acknowledged immediately and written in batches by LikeIngestionBuffer
     @PostMapping
     public ResponseEntity<?> likePost(@RequestBody Like like) {
-        if (like.getPost() == null || like.getPost().getId() == null) {
+        if (like.getPostId() == null) {
             return ResponseEntity.badRequest().body("Post ID is required");
         }
-
-        Optional<Post> postOptional = postRepo.findById(like.getPost().getId());
-        if (!postOptional.isPresent()) {
-            return ResponseEntity.badRequest().body("Post not found");
-        }
-
-        Post post = postOptional.get();
-        Optional<Like> existing = likeRepo.findByPostAndUserId(post, like.getUserId());
-        if (existing.isPresent()) {
-            return ResponseEntity.ok("Already liked");
+        if (like.getUserId() == null) {
+            return ResponseEntity.badRequest().body("User ID is required");
         }
-
-        like.setPost(post);
-        like.setPostCategory(post.getCategory()); // Explicitly set postCategory
-        Like savedLike = likeRepo.save(like);
-
-        NotificationMessage notification = new NotificationMessage(
-                "LIKE",
-                like.getUser(),
-                null
-        );
-        messagingTemplate.convertAndSend("/topic/notifications", notification);
-
-        return ResponseEntity.ok(savedLike);
+        // Server time only: a client-supplied timestamp would set the like's weight in close-friend scores
+        like.setTimestamp(LocalDateTime.now());
+        boolean accepted = likeIngestionBuffer.submit(like);
+        return ResponseEntity.accepted().body(accepted ? "Accepted" : "Already liked");
     }
 
     @GetMapping("/{postId}/count")
@@ -66,7 +58,8 @@ public class LikeController {
         if (!postOptional.isPresent()) {
             return ResponseEntity.badRequest().body(0L);
         }
-        return ResponseEntity.ok(likeRepo.countByPost(postOptional.get()));
+        // Likes still in the write-behind buffer aren't in likeCount yet
+        return ResponseEntity.ok(postOptional.get().getLikeCount() + likeIngestionBuffer.pendingCount(postId));
     }
 
     @GetMapping("/{postId}/user/{userId}")
@@ -74,11 +67,24 @@ public class LikeController {
         if (userId == null) {
             return ResponseEntity.badRequest().body(false);
         }
-        Optional<Post> postOptional = postRepo.findById(postId);
-        if (!postOptional.isPresent()) {
-            return ResponseEntity.badRequest().body(false);
+        if (likeIngestionBuffer.isPending(postId, userId)) {
+            return ResponseEntity.ok(true);
         }
-        return ResponseEntity.ok(likeRepo.findByPostAndUserId(postOptional.get(), userId).isPresent());
+        return ResponseEntity.ok(likeRepo.existsByPostIdAndUserId(postId, userId));
+    }
+
+    @DeleteMapping("/{postId}/user/{userId}")
+    public ResponseEntity<?> unlikePost(@PathVariable String postId, @PathVariable String userId) {
+        // A buffered like can repeat one that is already stored, so the stored one is removed as well
+        boolean cancelled = likeIngestionBuffer.cancel(postId, userId);
+        Optional<Like> removed = likeRepo.removeLike(postId, userId);
+        if (removed.isEmpty()) {
+            return ResponseEntity.ok(cancelled ? "Unliked" : "Not liked");
+        }
+        postRepo.incrementLikeCount(postId, -1);
+        recommendationService.onUnlike(userId, postId, removed.get().getPostCategory());
+        interactionService.removeLike(removed.get());
+        return ResponseEntity.ok("Unliked");
     }
 
     @GetMapping("/recommended/{userId}")
@@ -87,62 +93,9 @@ public class LikeController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         try {
-            // Fetch user likes
-            List<Like> userLikes = likeRepo.findByUserId(userId);
-            System.out.println("User " + userId + " likes: " + userLikes.size()); // Debug log
-
-            // Count likes per category
-            Map<String, Long> categoryCounts = userLikes.stream()
-                    .filter(like -> like.getPostCategory() != null)
-                    .collect(Collectors.groupingBy(
-                            Like::getPostCategory,
-                            Collectors.counting()
-                    ));
-            System.out.println("Category counts: " + categoryCounts); // Debug log
-
-            // Sort categories by like count (descending)
-            List<String> preferredCategories = categoryCounts.entrySet().stream()
-                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
-                    .map(Map.Entry::getKey)
-                    .collect(Collectors.toList());
-            System.out.println("Preferred categories: " + preferredCategories); // Debug log
-
-            // Fetch posts with pagination
-            Pageable pageable = PageRequest.of(page, size);
-            List<Post> allPosts = postRepo.findAll(pageable).getContent();
-            List<Post> recommendedPosts = new ArrayList<>();
-            Set<String> addedPostIds = new HashSet<>();
-
-            // Helper function to sort posts by like count and timestamp
-            Comparator<Post> postComparator = (a, b) -> {
-                long likesA = likeRepo.countByPost(a);
-                long likesB = likeRepo.countByPost(b);
-                if (likesB != likesA) {
-                    return Long.compare(likesB, likesA); // Sort by likes descending
-                }
-                return b.getTimestamp().compareTo(a.getTimestamp()); // Break ties by timestamp
-            };
-
-            // Add posts from preferred categories
-            for (String category : preferredCategories) {
-                List<Post> categoryPosts = allPosts.stream()
-                        .filter(post -> category.equals(post.getCategory()) && !addedPostIds.contains(post.getId()))
-                        .sorted(postComparator)
-                        .collect(Collectors.toList());
-                System.out.println("Posts in " + category + ": " + categoryPosts.size()); // Debug log
-                recommendedPosts.addAll(categoryPosts);
-                categoryPosts.forEach(post -> addedPostIds.add(post.getId()));
-            }
-
-            // Add remaining posts
-            List<Post> otherPosts = allPosts.stream()
-                    .filter(post -> !addedPostIds.contains(post.getId()))
-                    .sorted(postComparator)
-                    .collect(Collectors.toList());
-            recommendedPosts.addAll(otherPosts);
-
-            System.out.println("Total recommended posts: " + recommendedPosts.size()); // Debug log
-            return ResponseEntity.ok(recommendedPosts);
+            int pageSize = Math.max(1, Math.min(size, 100));
+            List<String> postIds = recommendationService.recommend(userId, page, pageSize);
+            return ResponseEntity.ok(postService.getPostsByIds(postIds));
         } catch (Exception e) {
             System.err.println("Error in getRecommendedPosts: " + e.getMessage());
             return ResponseEntity.status(500).body(Collections.emptyList());
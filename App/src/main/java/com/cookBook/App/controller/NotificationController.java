@@ -0,0 +1,57 @@
+package com.cookBook.App.controller;
+
+import com.cookBook.App.model.CursorPage;
+import com.cookBook.App.model.NotificationMessage;
+import com.cookBook.App.model.User;
+import com.cookBook.App.service.NotificationService;
+import com.cookBook.App.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public ResponseEntity<CursorPage<NotificationMessage>> getInbox(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            int size = Math.max(1, Math.min(limit, NotificationService.MAX_PAGE_SIZE));
+            return ResponseEntity.ok(notificationService.getInbox(currentUser().getId(), after, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Long> getUnreadCount() {
+        return ResponseEntity.ok(notificationService.getUnreadCount(currentUser().getId()));
+    }
+
+    @PostMapping("/{id}/read")
+    public ResponseEntity<?> markRead(@PathVariable String id) {
+        notificationService.markRead(currentUser().getId(), id);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/read")
+    public ResponseEntity<?> markAllRead() {
+        notificationService.markAllRead(currentUser().getId());
+        return ResponseEntity.ok().build();
+    }
+
+    private User currentUser() {
+        String principal = SecurityContextHolder.getContext().getAuthentication().getName();
+        return userService.findByProviderId(principal);
+    }
+}
@@ -1,18 +1,24 @@
 package com.cookBook.App.controller;
 
+import com.cookBook.App.model.CursorPage;
 import com.cookBook.App.model.Post;
+import com.cookBook.App.model.PostCardState;
+import com.cookBook.App.model.User;
+import com.cookBook.App.service.MediaStorage;
+import com.cookBook.App.service.PostCardService;
 import com.cookBook.App.service.PostService;
+import com.cookBook.App.service.RenditionService;
+import com.cookBook.App.service.TimelineService;
+import com.cookBook.App.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.util.StringUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.io.InputStream;
 import java.util.List;
 
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
@@ -23,7 +29,20 @@ public class PostController {
     @Autowired
     private PostService postService;
 
-    private static final String UPLOAD_DIR = "Uploads/";
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    @Autowired
+    private RenditionService renditionService;
+
+    @Autowired
+    private PostCardService postCardService;
 
     @PostMapping("/create")
     public ResponseEntity<Post> createPost(@RequestBody Post post) {
@@ -35,12 +54,12 @@ public class PostController {
 
     @PostMapping("/upload")
     public ResponseEntity<String> uploadMedia(@RequestParam("file") MultipartFile file) {
-        try {
-            String filename = System.currentTimeMillis() + "_" + StringUtils.cleanPath(file.getOriginalFilename());
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) Files.createDirectories(uploadPath);
-            Files.copy(file.getInputStream(), uploadPath.resolve(filename), StandardCopyOption.REPLACE_EXISTING);
-            return ResponseEntity.ok("/" + UPLOAD_DIR + filename);
+        try (InputStream content = file.getInputStream()) {
+            String url = mediaStorage.store(content, file.getOriginalFilename());
+            renditionService.enqueue(url);
+            return ResponseEntity.ok(url);
+        } catch (MediaStorage.MediaTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.internalServerError().body("Upload failed.");
         }
@@ -51,6 +70,53 @@ public class PostController {
         return ResponseEntity.ok(postService.getAllPosts());
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<CursorPage<Post>> getFeed(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String category) {
+        try {
+            return ResponseEntity.ok(postService.getFeedPage(category, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<Post>> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(postService.searchPosts(query, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/timeline")
+    public ResponseEntity<CursorPage<Post>> getTimeline(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            String principal = SecurityContextHolder.getContext().getAuthentication().getName();
+            User user = userService.findByProviderId(principal);
+            CursorPage<String> page = timelineService.getTimeline(user, after, Math.max(1, Math.min(limit, 100)));
+            return ResponseEntity.ok(new CursorPage<>(postService.getPostsByIds(page.getItems()), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // Like counts, liked-by-viewer and comment counts for a whole page of posts in one call
+    @PostMapping("/cards")
+    public ResponseEntity<PostCardState> getCardState(@RequestBody PostCardRequest request) {
+        if (request.getPostIds() == null || request.getPostIds().size() > PostCardService.MAX_POSTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(postCardService.getCardState(request.getPostIds(), request.getViewerId()));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Post> getPostById(@PathVariable String id) {
         return postService.getPostById(id)
@@ -63,6 +129,14 @@ public class PostController {
         return ResponseEntity.ok(postService.getPostsByCategory(category));
     }
 
+    @GetMapping("/category/{category}/feed")
+    public ResponseEntity<CursorPage<Post>> getCategoryFeed(
+            @PathVariable String category,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit) {
+        return getFeed(after, limit, category);
+    }
+
     @PutMapping("/update/{id}")
     public ResponseEntity<Post> updatePost(@PathVariable String id, @RequestBody Post post) {
         return ResponseEntity.ok(postService.updatePost(id, post));
@@ -73,4 +147,15 @@ public class PostController {
         postService.deletePost(id);
         return ResponseEntity.ok("Deleted");
     }
+
+    public static class PostCardRequest {
+        private List<String> postIds;
+        private String viewerId;
+
+        public List<String> getPostIds() { return postIds; }
+        public void setPostIds(List<String> postIds) { this.postIds = postIds; }
+
+        public String getViewerId() { return viewerId; }
+        public void setViewerId(String viewerId) { this.viewerId = viewerId; }
+    }
 }
\ No newline at end of file
@@ -1,6 +1,11 @@
 package com.cookBook.App.controller;
 
+import com.cookBook.App.model.AccountDeletionJob;
+import com.cookBook.App.model.FollowPage;
+import com.cookBook.App.model.FollowSuggestion;
 import com.cookBook.App.model.User;
+import com.cookBook.App.service.AccountDeletionService;
+import com.cookBook.App.service.FollowSuggestionService;
 import com.cookBook.App.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -14,9 +19,17 @@ import java.util.Optional;
 @RequestMapping("/users")
 public class UserController {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private FollowSuggestionService followSuggestionService;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
     // Get all users
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
@@ -54,13 +67,23 @@ public class UserController {
             if (principal == null || principal.trim().isEmpty()) {
                 return ResponseEntity.status(401).body("Authentication required");
             }
-            userService.deleteUser(principal, id);
-            return ResponseEntity.ok().body("User deleted successfully");
+            // The account and its content are removed in the background; poll the job for progress
+            AccountDeletionJob job = accountDeletionService.requestDeletion(principal, id);
+            return ResponseEntity.accepted().body(job);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // Get the progress of an account deletion
+    @GetMapping("/deletion-jobs/{jobId}")
+    public ResponseEntity<AccountDeletionJob> getDeletionJob(@PathVariable String jobId) {
+        String principal = SecurityContextHolder.getContext().getAuthentication().getName();
+        return accountDeletionService.getJob(principal, jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     // Follow a user
     @PostMapping("/{id}/follow")
     public ResponseEntity<?> followUser(@PathVariable String id) {
@@ -95,57 +118,91 @@ public class UserController {
         }
     }
 
-    // Get followers' details for a user by ID
+    // Suggest people to follow: who the people the current user follows are following
+    @GetMapping("/me/suggestions")
+    public ResponseEntity<List<FollowSuggestion>> getFollowSuggestions(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            String principal = SecurityContextHolder.getContext().getAuthentication().getName();
+            if (principal == null || principal.trim().isEmpty()) {
+                return ResponseEntity.status(401).body(null);
+            }
+            User user = userService.findByProviderId(principal);
+            return ResponseEntity.ok(followSuggestionService.suggest(user.getId(), Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Failed to suggest users to follow: " + e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // Get one page of a user's followers
     @GetMapping("/{id}/followers")
-    public ResponseEntity<List<User>> getFollowers(@PathVariable String id) {
+    public ResponseEntity<FollowPage> getFollowers(
+            @PathVariable String id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
             Optional<User> userOptional = userService.getUserById(id);
             if (userOptional.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
-            User user = userOptional.get();
-            List<String> followerIds = user.getFollowers();
-            List<User> followers = userService.getFollowersByIds(followerIds);
-            return ResponseEntity.ok(followers);
+            return ResponseEntity.ok(userService.getFollowersPage(userOptional.get(), after, limit));
         } catch (IllegalArgumentException e) {
             System.out.println("Failed to fetch followers: " + e.getMessage());
             return ResponseEntity.badRequest().body(null);
         }
     }
 
-    // Get the current user's followers
+    // Get one page of the users a user is following
+    @GetMapping("/{id}/following")
+    public ResponseEntity<FollowPage> getFollowing(
+            @PathVariable String id,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            Optional<User> userOptional = userService.getUserById(id);
+            if (userOptional.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(userService.getFollowingPage(userOptional.get(), after, limit));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Failed to fetch following: " + e.getMessage());
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+
+    // Get one page of the current user's followers
     @GetMapping("/me/followers")
-    public ResponseEntity<List<User>> getCurrentUserFollowers() {
+    public ResponseEntity<FollowPage> getCurrentUserFollowers(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
             String principal = SecurityContextHolder.getContext().getAuthentication().getName();
             if (principal == null || principal.trim().isEmpty()) {
                 return ResponseEntity.status(401).body(null);
             }
             User user = userService.findByProviderId(principal);
-            List<String> followerIds = user.getFollowers();
-            List<User> followers = userService.getFollowersByIds(followerIds);
-            return ResponseEntity.ok(followers);
+            return ResponseEntity.ok(userService.getFollowersPage(user, after, limit));
         } catch (IllegalArgumentException e) {
             System.out.println("Failed to fetch current user's followers: " + e.getMessage());
             return ResponseEntity.badRequest().body(null);
         }
     }
 
-    // Get the users the current user is following
+    // Get one page of the users the current user is following
     @GetMapping("/me/following")
-    public ResponseEntity<List<User>> getCurrentUserFollowing() {
+    public ResponseEntity<FollowPage> getCurrentUserFollowing(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
         try {
             String principal = SecurityContextHolder.getContext().getAuthentication().getName();
             if (principal == null || principal.trim().isEmpty()) {
                 return ResponseEntity.status(401).body(null);
             }
             User user = userService.findByProviderId(principal);
-            List<String> followingIds = user.getFollowing();
-            List<User> following = userService.getFollowingByIds(followingIds);
-            return ResponseEntity.ok(following);
+            return ResponseEntity.ok(userService.getFollowingPage(user, after, limit));
         } catch (IllegalArgumentException e) {
             System.out.println("Failed to fetch current user's following: " + e.getMessage());
             return ResponseEntity.badRequest().body(null);
         }
     }
-}
\ No newline at end of file
+}
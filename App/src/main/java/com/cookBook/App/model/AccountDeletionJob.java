@@ -0,0 +1,72 @@
+package com.cookBook.App.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+// Persistent record of one account deletion; the phase is where a resumed job picks up
+@Document(collection = "account_deletion_jobs")
+@CompoundIndex(name = "status_updated_idx", def = "{'status': 1, 'updatedAt': 1}")
+public class AccountDeletionJob {
+
+    public enum Status { PENDING, RUNNING, DONE, FAILED }
+
+    // Executed in declaration order; the account itself goes last so a crashed job still knows whose data it is
+    public enum Phase { FOLLOWERS, FOLLOWING, LIKES, COMMENTS, POSTS, PROGRESS_UPDATES, LEARNING_PLANS, NOTIFICATIONS, ACCOUNT }
+
+    @Id
+    private String id;
+
+    @Indexed(unique = true)
+    private String userId;
+    private String userName;
+    private String providerId;
+    private Status status;
+    private Phase phase;
+    private Map<String, Long> deleted = new HashMap<>(); // Phase name -> documents removed so far
+    private int attempts;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public AccountDeletionJob() {
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public String getProviderId() { return providerId; }
+    public void setProviderId(String providerId) { this.providerId = providerId; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Phase getPhase() { return phase; }
+    public void setPhase(Phase phase) { this.phase = phase; }
+
+    public Map<String, Long> getDeleted() { return deleted; }
+    public void setDeleted(Map<String, Long> deleted) { this.deleted = deleted; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -2,6 +2,8 @@
 package com.cookBook.App.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
@@ -10,6 +12,10 @@ import java.util.Date;
 import java.time.LocalDateTime;
 
 @Document(collection = "comments")
+@CompoundIndexes({
+        @CompoundIndex(name = "post_thread_idx", def = "{'postId': 1, 'timestamp': 1, '_id': 1}"),
+        @CompoundIndex(name = "author_idx", def = "{'userId': 1}")
+})
 
 public class Comment {
 
@@ -18,9 +24,11 @@ public class Comment {
     private String id;
 
     private String postId;
-    private String user;
+    private String user;            // Author's display name at the time of writing
+    private String userId;          // Author's id; set by the server, missing on comments it couldn't attribute
     private String text;
-    private LocalDateTime timestamp;
+    private LocalDateTime timestamp;       // Time of the last edit
+    private LocalDateTime createdAt;       // Time the comment was written; edits don't touch it
 
     public Comment() {}
 
@@ -42,9 +50,15 @@ public class Comment {
     public String getUser() { return user; }
     public void setUser(String user) { this.user = user; }
 
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
     public String getText() { return text; }
     public void setText(String text) { this.text = text; }
 
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.cookBook.App.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// One "follower follows followee" edge of the follow graph
+@Document(collection = "follows")
+@CompoundIndexes({
+        @CompoundIndex(name = "follower_followee_idx", def = "{'followerId': 1, 'followeeId': 1}", unique = true),
+        @CompoundIndex(name = "followee_recent_idx", def = "{'followeeId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "follower_recent_idx", def = "{'followerId': 1, 'createdAt': -1, '_id': -1}")
+})
+public class Follow {
+
+    @Id
+    private String id;
+    private String followerId;
+    private String followeeId;
+    private LocalDateTime createdAt;
+
+    public Follow() {
+    }
+
+    public Follow(String followerId, String followeeId, LocalDateTime createdAt) {
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getFollowerId() { return followerId; }
+    public void setFollowerId(String followerId) { this.followerId = followerId; }
+
+    public String getFolloweeId() { return followeeId; }
+    public void setFolloweeId(String followeeId) { this.followeeId = followeeId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
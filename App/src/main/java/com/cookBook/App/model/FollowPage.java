@@ -0,0 +1,20 @@
+package com.cookBook.App.model;
+
+import java.util.List;
+
+// One page of a follower or following listing; total is the user's follow counter, not the page size
+public class FollowPage extends CursorPage<UserSummary> {
+
+    private long total;
+
+    public FollowPage() {
+    }
+
+    public FollowPage(List<UserSummary> items, String nextCursor, long total) {
+        super(items, nextCursor);
+        this.total = total;
+    }
+
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+}
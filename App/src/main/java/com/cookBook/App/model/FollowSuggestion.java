@@ -0,0 +1,32 @@
+package com.cookBook.App.model;
+
+// A user to suggest following, with how many of the people the viewer follows already follow them
+public class FollowSuggestion {
+
+    private String id;
+    private String name;
+    private String picture;
+    private int mutualCount;
+
+    public FollowSuggestion() {
+    }
+
+    public FollowSuggestion(String id, String name, String picture, int mutualCount) {
+        this.id = id;
+        this.name = name;
+        this.picture = picture;
+        this.mutualCount = mutualCount;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getPicture() { return picture; }
+    public void setPicture(String picture) { this.picture = picture; }
+
+    public int getMutualCount() { return mutualCount; }
+    public void setMutualCount(int mutualCount) { this.mutualCount = mutualCount; }
+}
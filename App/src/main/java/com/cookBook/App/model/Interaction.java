@@ -0,0 +1,58 @@
+package com.cookBook.App.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Pre-aggregated engagement of one user (interactor) with another user's (author) posts.
+// score is time-decayed but stored relative to the start of an era (see InteractionService), so
+// ordering by it equals ordering by the decayed weight at any point in time. era says which one.
+@Document(collection = "interactions")
+@CompoundIndexes({
+        @CompoundIndex(name = "author_interactor_idx", def = "{'author': 1, 'interactor': 1}", unique = true),
+        @CompoundIndex(name = "author_score_idx", def = "{'author': 1, 'score': -1}"),
+        @CompoundIndex(name = "era_idx", def = "{'era': 1}")
+})
+public class Interaction {
+
+    @Id
+    private String id;
+
+    private String author; // User names, as used by comments and the close-friends endpoint
+    private String interactor;
+    private long comments;
+    private long likes;
+    private double score;
+    private long era;
+    private LocalDateTime lastInteractionAt;
+
+    public Interaction() {
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getAuthor() { return author; }
+    public void setAuthor(String author) { this.author = author; }
+
+    public String getInteractor() { return interactor; }
+    public void setInteractor(String interactor) { this.interactor = interactor; }
+
+    public long getComments() { return comments; }
+    public void setComments(long comments) { this.comments = comments; }
+
+    public long getLikes() { return likes; }
+    public void setLikes(long likes) { this.likes = likes; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    public long getEra() { return era; }
+    public void setEra(long era) { this.era = era; }
+
+    public LocalDateTime getLastInteractionAt() { return lastInteractionAt; }
+    public void setLastInteractionAt(LocalDateTime lastInteractionAt) { this.lastInteractionAt = lastInteractionAt; }
+}
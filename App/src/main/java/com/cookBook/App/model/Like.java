@@ -1,29 +1,33 @@
 package com.cookBook.App.model;
 
 import org.springframework.data.annotation.Id;
-import org.springframework.data.mongodb.core.mapping.DBRef;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "likes")
+@CompoundIndexes({
+        @CompoundIndex(name = "post_user_idx", def = "{'postId': 1, 'userId': 1}", unique = true),
+        @CompoundIndex(name = "user_idx", def = "{'userId': 1}")
+})
 public class Like {
 
     @Id
     private String id;
     private String user;
 
-    @DBRef
-    private Post post;
-    private String postCategory; // New field to store Post's category
+    private String postId; // Id of the liked post (stored as a plain string, not a DBRef)
+    private String postCategory; // Post's category at the time of the like
     private String userId;
     private LocalDateTime timestamp;
 
     public Like() {}
 
-    public Like(Post post, String user, String userId) {
-        this.post = post;
-        this.postCategory = post != null ? post.getCategory() : null; // Set category from Post
+    public Like(String postId, String postCategory, String user, String userId) {
+        this.postId = postId;
+        this.postCategory = postCategory;
         this.user = user;
         this.userId = userId;
         this.timestamp = LocalDateTime.now();
@@ -35,11 +39,8 @@ public class Like {
     public String getUser() { return user; }
     public void setUser(String user) { this.user = user; }
 
-    public Post getPost() { return post; }
-    public void setPost(Post post) {
-        this.post = post;
-        this.postCategory = post != null ? post.getCategory() : null; // Update category when setting Post
-    }
+    public String getPostId() { return postId; }
+    public void setPostId(String postId) { this.postId = postId; }
 
     public String getPostCategory() { return postCategory; }
     public void setPostCategory(String postCategory) { this.postCategory = postCategory; }
@@ -49,11 +50,4 @@ public class Like {
 
     public LocalDateTime getTimestamp() { return timestamp; }
     public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
-
-    // Helper method for compatibility
-    public String getPostId() { return post != null ? post.getId() : null; }
-    public void setPostId(String postId) {
-        if (post == null) post = new Post();
-        post.setId(postId);
-    }
-}
\ No newline at end of file
+}
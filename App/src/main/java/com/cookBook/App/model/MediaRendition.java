@@ -0,0 +1,27 @@
+package com.cookBook.App.model;
+
+// Downscaled variants of one entry of Post.mediaUrls
+public class MediaRendition {
+
+    private String sourceUrl;
+    private String thumbnailUrl;
+    private String feedUrl;
+
+    public MediaRendition() {
+    }
+
+    public MediaRendition(String sourceUrl, String thumbnailUrl, String feedUrl) {
+        this.sourceUrl = sourceUrl;
+        this.thumbnailUrl = thumbnailUrl;
+        this.feedUrl = feedUrl;
+    }
+
+    public String getSourceUrl() { return sourceUrl; }
+    public void setSourceUrl(String sourceUrl) { this.sourceUrl = sourceUrl; }
+
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public void setThumbnailUrl(String thumbnailUrl) { this.thumbnailUrl = thumbnailUrl; }
+
+    public String getFeedUrl() { return feedUrl; }
+    public void setFeedUrl(String feedUrl) { this.feedUrl = feedUrl; }
+}
@@ -0,0 +1,22 @@
+package com.cookBook.App.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+// Number of unread notifications of one user, keyed by the user's id
+@Document(collection = "notification_counters")
+public class NotificationCounter {
+
+    @Id
+    private String id;
+    private long unread;
+
+    public NotificationCounter() {
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public long getUnread() { return unread; }
+    public void setUnread(long unread) { this.unread = unread; }
+}
@@ -1,17 +1,36 @@
 package com.cookBook.App.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import java.util.Date;
-
-import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+import java.util.List;
 
+// A notification in a user's inbox, also the payload pushed to /user/queue/notifications.
+// Activity of the same type on the same post within the coalescing window is folded into one
+// notification: user is the latest actor, actors the most recent few, actorCount all of them.
 @Document(collection = "notification message")
+@CompoundIndexes({
+        @CompoundIndex(name = "recipient_group_idx", def = "{'recipientId': 1, 'groupKey': 1}", unique = true),
+        @CompoundIndex(name = "recipient_post_type_idx", def = "{'recipientId': 1, 'postId': 1, 'type': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "recipient_inbox_idx", def = "{'recipientId': 1, 'updatedAt': -1, '_id': -1}")
+})
 public class NotificationMessage {
+    @Id
+    private String id;
     private String type;
     private String user;
     private String text;
+    private String recipientId;
+    private String postId;
+    private String groupKey;
+    private List<String> actors;
+    private long actorCount;
+    private boolean read;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 
     public NotificationMessage() {
     }
@@ -22,6 +41,14 @@ public class NotificationMessage {
         this.text = text;
     }
 
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
     // Getter and Setter for 'type'
     public String getType() {
         return type;
@@ -48,4 +75,68 @@ public class NotificationMessage {
     public void setText(String text) {
         this.text = text;
     }
+
+    public String getRecipientId() {
+        return recipientId;
+    }
+
+    public void setRecipientId(String recipientId) {
+        this.recipientId = recipientId;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getGroupKey() {
+        return groupKey;
+    }
+
+    public void setGroupKey(String groupKey) {
+        this.groupKey = groupKey;
+    }
+
+    public List<String> getActors() {
+        return actors;
+    }
+
+    public void setActors(List<String> actors) {
+        this.actors = actors;
+    }
+
+    public long getActorCount() {
+        return actorCount;
+    }
+
+    public void setActorCount(long actorCount) {
+        this.actorCount = actorCount;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public void setRead(boolean read) {
+        this.read = read;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
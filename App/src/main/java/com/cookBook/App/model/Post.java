@@ -1,12 +1,19 @@
 package com.cookBook.App.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "posts")
+@CompoundIndexes({
+        @CompoundIndex(name = "feed_idx", def = "{'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "category_feed_idx", def = "{'category': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "author_feed_idx", def = "{'userId': 1, 'timestamp': -1, '_id': -1}")
+})
 public class Post {
 
     @Id
@@ -18,11 +25,14 @@ public class Post {
     private String category; // New field for category
     private List<String> mediaUrls;
     private List<String> mediaTypes;
+    private List<MediaRendition> renditions; // Thumbnail/feed-size variants of mediaUrls, filled in as they are generated
     private boolean isPrivate;
     private List<String> taggedFriends;
     private String location;
     private LocalDateTime timestamp;
     private String userName;
+    private long likeCount; // Denormalized, maintained with $inc by the like endpoints
+    private long commentCount; // Denormalized, maintained with $inc by the comment endpoints
 
     // Getters and Setters
     public String getId() { return id; }
@@ -46,6 +56,9 @@ public class Post {
     public List<String> getMediaTypes() { return mediaTypes; }
     public void setMediaTypes(List<String> mediaTypes) { this.mediaTypes = mediaTypes; }
 
+    public List<MediaRendition> getRenditions() { return renditions; }
+    public void setRenditions(List<MediaRendition> renditions) { this.renditions = renditions; }
+
     public boolean isPrivate() { return isPrivate; }
     public void setPrivate(boolean aPrivate) { isPrivate = aPrivate; }
 
@@ -60,4 +73,10 @@ public class Post {
 
     public String getUserName() { return userName; }
     public void setUserName(String userName) { this.userName = userName; }
+
+    public long getLikeCount() { return likeCount; }
+    public void setLikeCount(long likeCount) { this.likeCount = likeCount; }
+
+    public long getCommentCount() { return commentCount; }
+    public void setCommentCount(long commentCount) { this.commentCount = commentCount; }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.cookBook.App.model;
+
+import java.util.List;
+
+// Like/comment state for a page of post cards. The arrays are parallel to postIds;
+// likedByViewer is a base64 BitSet (java.util.BitSet.toByteArray, little-endian) where
+// bit i is set when the viewer liked postIds[i].
+public class PostCardState {
+
+    private List<String> postIds;
+    private long[] likeCounts;
+    private long[] commentCounts;
+    private String likedByViewer;
+
+    public PostCardState() {
+    }
+
+    public PostCardState(List<String> postIds, long[] likeCounts, long[] commentCounts, String likedByViewer) {
+        this.postIds = postIds;
+        this.likeCounts = likeCounts;
+        this.commentCounts = commentCounts;
+        this.likedByViewer = likedByViewer;
+    }
+
+    public List<String> getPostIds() { return postIds; }
+    public void setPostIds(List<String> postIds) { this.postIds = postIds; }
+
+    public long[] getLikeCounts() { return likeCounts; }
+    public void setLikeCounts(long[] likeCounts) { this.likeCounts = likeCounts; }
+
+    public long[] getCommentCounts() { return commentCounts; }
+    public void setCommentCounts(long[] commentCounts) { this.commentCounts = commentCounts; }
+
+    public String getLikedByViewer() { return likedByViewer; }
+    public void setLikedByViewer(String likedByViewer) { this.likedByViewer = likedByViewer; }
+}
@@ -1,6 +1,7 @@
 package com.cookBook.App.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
@@ -12,15 +13,19 @@ public class User {
 
     @Id
     private String id;              // Unique identifier (MongoDB ObjectId)
-    private String providerId;
+    @Indexed
+    private String providerId;      // OAuth principal name; looked up on every authenticated request
     private String provider;
-    private String name;            // User's full name from OAuth provider
+    @Indexed
+    private String name;            // User's full name from OAuth provider; indexed for resolving tagged friends
     private String email;           // User's email from OAuth provider
     private String picture;
     private Date birthday;
     private String about;           // User's bio or description
     private List<String> following = new ArrayList<>(); // List of user IDs this user follows
-    private List<String> followers = new ArrayList<>(); // List of user IDs following this user
+    private List<String> followers = new ArrayList<>(); // Legacy; the follows collection holds followers now
+    private long followingCount;
+    private long followersCount;
 
     // Constructors
     public User() {
@@ -106,4 +111,10 @@ public class User {
     public void setFollowers(List<String> followers) {
         this.followers = followers;
     }
-}
\ No newline at end of file
+
+    public long getFollowingCount() { return followingCount; }
+    public void setFollowingCount(long followingCount) { this.followingCount = followingCount; }
+
+    public long getFollowersCount() { return followersCount; }
+    public void setFollowersCount(long followersCount) { this.followersCount = followersCount; }
+}
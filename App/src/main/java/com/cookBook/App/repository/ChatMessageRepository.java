@@ -1,6 +1,7 @@
 package com.cookBook.App.repository;
 
 import com.cookBook.App.model.ChatMessage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
 import java.time.LocalDateTime;
@@ -8,6 +9,10 @@ import java.util.List;
 import java.util.Optional;
 
 public interface ChatMessageRepository extends MongoRepository<ChatMessage, String> {
-    List<ChatMessage> findTop20ByOrderByTimestampDesc();
+    // Keyset pages of history on the _id index; ObjectIds are time-ordered
+    List<ChatMessage> findAllByOrderByIdDesc(Pageable pageable);
+
+    List<ChatMessage> findByIdLessThanOrderByIdDesc(String id, Pageable pageable);
+
     Optional<ChatMessage> findByContentAndSenderIdAndTimestamp(String content, String senderId, LocalDateTime timestamp);
 }
\ No newline at end of file
@@ -7,9 +7,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.List;
 import java.util.Optional;
 
-public interface CommentRepository extends MongoRepository<Comment, String> {
-
-    List<Comment> findByPostId(String PostId);
+public interface CommentRepository extends MongoRepository<Comment, String>, CommentRepositoryCustom {
 
     List<Comment> findByPostIdIn(List<String> postIds);
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Comment;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CommentRepositoryCustom {
+    // Oldest-first comments of a post strictly after the (timestamp, id) position, which is optional
+    List<Comment> findThreadPage(String postId, LocalDateTime afterTimestamp, String afterId, int limit);
+
+    // Deletes the comment in one statement and returns it, if it existed
+    Optional<Comment> removeComment(String id);
+}
@@ -0,0 +1,38 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Comment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public class CommentRepositoryImpl implements CommentRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Comment> findThreadPage(String postId, LocalDateTime afterTimestamp, String afterId, int limit) {
+        Criteria criteria = Criteria.where("postId").is(postId);
+        if (afterTimestamp != null && afterId != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("timestamp").gt(afterTimestamp),
+                    Criteria.where("timestamp").is(afterTimestamp).and("id").gt(afterId)
+            );
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Order.asc("timestamp"), Sort.Order.asc("id")))
+                .limit(limit);
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public Optional<Comment> removeComment(String id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(Query.query(Criteria.where("id").is(id)), Comment.class));
+    }
+}
@@ -0,0 +1,15 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Follow;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+
+public interface FollowRepository extends MongoRepository<Follow, String>, FollowRepositoryCustom {
+
+    boolean existsByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    long deleteByFollowerIdAndFolloweeId(String followerId, String followeeId);
+
+    List<Follow> findByFolloweeId(String followeeId);
+}
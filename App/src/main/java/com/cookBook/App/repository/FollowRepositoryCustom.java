@@ -0,0 +1,14 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Follow;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface FollowRepositoryCustom {
+    // Edges pointing at the user, newest first, strictly after the (createdAt, id) position when one is given
+    List<Follow> findFollowersPage(String followeeId, LocalDateTime beforeTimestamp, String beforeId, int limit);
+
+    // Edges from the user, newest first, strictly after the (createdAt, id) position when one is given
+    List<Follow> findFollowingPage(String followerId, LocalDateTime beforeTimestamp, String beforeId, int limit);
+}
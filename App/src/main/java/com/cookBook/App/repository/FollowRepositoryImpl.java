@@ -0,0 +1,42 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Follow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Both pages walk the (side, createdAt -1, _id -1) indexes declared on Follow
+public class FollowRepositoryImpl implements FollowRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Follow> findFollowersPage(String followeeId, LocalDateTime beforeTimestamp, String beforeId, int limit) {
+        return findPage("followeeId", followeeId, beforeTimestamp, beforeId, limit);
+    }
+
+    @Override
+    public List<Follow> findFollowingPage(String followerId, LocalDateTime beforeTimestamp, String beforeId, int limit) {
+        return findPage("followerId", followerId, beforeTimestamp, beforeId, limit);
+    }
+
+    private List<Follow> findPage(String side, String userId, LocalDateTime beforeTimestamp, String beforeId, int limit) {
+        Criteria criteria = Criteria.where(side).is(userId);
+        if (beforeTimestamp != null && beforeId != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(beforeTimestamp),
+                    Criteria.where("createdAt").is(beforeTimestamp).and("id").lt(beforeId)
+            );
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(limit);
+        return mongoTemplate.find(query, Follow.class);
+    }
+}
@@ -0,0 +1,10 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Like;
+
+import java.util.Optional;
+
+public interface LikeRepositoryCustom {
+    // Deletes the user's like on the post in one statement and returns it, if there was one
+    Optional<Like> removeLike(String postId, String userId);
+}
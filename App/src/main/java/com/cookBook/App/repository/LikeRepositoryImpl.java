@@ -0,0 +1,21 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Like;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Optional;
+
+public class LikeRepositoryImpl implements LikeRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<Like> removeLike(String postId, String userId) {
+        Query query = Query.query(Criteria.where("postId").is(postId).and("userId").is(userId));
+        return Optional.ofNullable(mongoTemplate.findAndRemove(query, Like.class));
+    }
+}
@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface PostRepository extends MongoRepository<Post, String> {
+public interface PostRepository extends MongoRepository<Post, String>, PostRepositoryCustom {
     List<Post> findByUserName(String userName);
     List<Post> findByCategory(String category); // New method for category-based queries
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Post;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PostRepositoryCustom {
+    // Newest-first posts strictly after the (timestamp, id) position; category and position are optional.
+    // Posts without a timestamp come last, so a null beforeTimestamp with a beforeId pages through those
+    List<Post> findFeedPage(String category, LocalDateTime beforeTimestamp, String beforeId, int limit);
+
+    // Same ordering as findFeedPage, restricted to the given authors; only id, userId and timestamp are loaded
+    List<Post> findAuthorsPage(Collection<String> userIds, LocalDateTime beforeTimestamp, String beforeId, int limit);
+
+    // Atomically adds delta to Post.likeCount
+    void incrementLikeCount(String postId, long delta);
+
+    // Atomically adds delta to Post.commentCount
+    void incrementCommentCount(String postId, long delta);
+}
@@ -0,0 +1,69 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.Post;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class PostRepositoryImpl implements PostRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Post> findFeedPage(String category, LocalDateTime beforeTimestamp, String beforeId, int limit) {
+        Criteria criteria = new Criteria();
+        if (category != null) {
+            criteria = Criteria.where("category").is(category);
+        }
+        return mongoTemplate.find(newestFirst(criteria, beforeTimestamp, beforeId, limit), Post.class);
+    }
+
+    @Override
+    public List<Post> findAuthorsPage(Collection<String> userIds, LocalDateTime beforeTimestamp, String beforeId, int limit) {
+        Query query = newestFirst(Criteria.where("userId").in(userIds), beforeTimestamp, beforeId, limit);
+        query.fields().include("userId", "timestamp");
+        return mongoTemplate.find(query, Post.class);
+    }
+
+    private static Query newestFirst(Criteria criteria, LocalDateTime beforeTimestamp, String beforeId, int limit) {
+        if (beforeTimestamp != null && beforeId != null) {
+            criteria = criteria.orOperator(
+                    Criteria.where("timestamp").lt(beforeTimestamp),
+                    Criteria.where("timestamp").is(beforeTimestamp).and("id").lt(beforeId),
+                    Criteria.where("timestamp").is(null)
+            );
+        } else if (beforeId != null) {
+            // Position is inside the trailing run of legacy posts that have no timestamp
+            criteria = criteria.andOperator(Criteria.where("timestamp").is(null), Criteria.where("id").lt(beforeId));
+        }
+        return new Query(criteria)
+                .with(Sort.by(Sort.Order.desc("timestamp"), Sort.Order.desc("id")))
+                .limit(limit);
+    }
+
+    @Override
+    public void incrementLikeCount(String postId, long delta) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(postId)),
+                new Update().inc("likeCount", delta),
+                Post.class
+        );
+    }
+
+    @Override
+    public void incrementCommentCount(String postId, long delta) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(postId)),
+                new Update().inc("commentCount", delta),
+                Post.class
+        );
+    }
+}
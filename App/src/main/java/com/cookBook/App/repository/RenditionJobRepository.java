@@ -0,0 +1,11 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.RenditionJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface RenditionJobRepository extends MongoRepository<RenditionJob, String> {
+    List<RenditionJob> findBySourceUrlInAndStatus(Collection<String> sourceUrls, RenditionJob.Status status);
+}
@@ -0,0 +1,28 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.User;
+import com.cookBook.App.model.UserSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserRepositoryCustom {
+    // Applies a new follow edge to both users' counters and the follower's following list; returns the updated follower
+    User recordFollow(String followerId, String followeeId);
+
+    // Reverses recordFollow; returns the updated follower
+    User recordUnfollow(String followerId, String followeeId);
+
+    // Removes a follow that only exists in the legacy arrays (not migrated to an edge yet); returns
+    // the updated follower, or null if the follower's array didn't hold it either
+    User removeLegacyFollow(String followerId, String followeeId);
+
+    // Detaches a user being deleted from the given followers and followees
+    void detachFromGraph(String userId, Collection<String> followerIds, Collection<String> followeeIds);
+
+    // Ids among the given users whose followersCount is above the threshold
+    List<String> findIdsWithFollowersAbove(Collection<String> ids, long threshold);
+
+    // Id, name and picture of the given users, in no particular order
+    List<UserSummary> findSummaries(Collection<String> ids);
+}
@@ -0,0 +1,92 @@
+package com.cookBook.App.repository;
+
+import com.cookBook.App.model.User;
+import com.cookBook.App.model.UserSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Collection;
+import java.util.List;
+
+// The follows collection is the source of truth for the graph. User.following is still kept (with
+// $addToSet/$pull) because clients read it; User.followers is no longer grown, only pulled from.
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public User recordFollow(String followerId, String followeeId) {
+        // A legacy follow that hasn't been migrated is already counted on the side whose array holds it
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(followeeId).and("followers").ne(followerId)),
+                new Update().inc("followersCount", 1), User.class);
+        User follower = mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(followerId).and("following").ne(followeeId)),
+                new Update().addToSet("following", followeeId).inc("followingCount", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+        return follower != null ? follower : mongoTemplate.findById(followerId, User.class);
+    }
+
+    @Override
+    public User recordUnfollow(String followerId, String followeeId) {
+        mongoTemplate.updateFirst(byId(followeeId),
+                new Update().inc("followersCount", -1).pull("followers", followerId), User.class);
+        return mongoTemplate.findAndModify(byId(followerId),
+                new Update().pull("following", followeeId).inc("followingCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+    }
+
+    @Override
+    public User removeLegacyFollow(String followerId, String followeeId) {
+        // Counters only move on the side whose array actually held the other user
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(followeeId).and("followers").is(followerId)),
+                new Update().inc("followersCount", -1).pull("followers", followerId), User.class);
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("id").is(followerId).and("following").is(followeeId)),
+                new Update().pull("following", followeeId).inc("followingCount", -1),
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+    }
+
+    @Override
+    public void detachFromGraph(String userId, Collection<String> followerIds, Collection<String> followeeIds) {
+        if (!followerIds.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(followerIds)),
+                    new Update().pull("following", userId).inc("followingCount", -1), User.class);
+        }
+        if (!followeeIds.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(followeeIds)),
+                    new Update().pull("followers", userId).inc("followersCount", -1), User.class);
+        }
+    }
+
+    @Override
+    public List<String> findIdsWithFollowersAbove(Collection<String> ids, long threshold) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = Query.query(Criteria.where("id").in(ids).and("followersCount").gt(threshold));
+        query.fields().include("id");
+        return mongoTemplate.find(query, User.class).stream().map(User::getId).toList();
+    }
+
+    @Override
+    public List<UserSummary> findSummaries(Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("name", "picture");
+        return mongoTemplate.find(query, User.class).stream()
+                .map(user -> new UserSummary(user.getId(), user.getName(), user.getPicture()))
+                .toList();
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+}
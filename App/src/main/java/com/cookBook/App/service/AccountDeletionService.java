@@ -0,0 +1,333 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.AccountDeletionJob;
+import com.cookBook.App.model.Comment;
+import com.cookBook.App.model.Follow;
+import com.cookBook.App.model.LearningPlan;
+import com.cookBook.App.model.Like;
+import com.cookBook.App.model.NotificationCounter;
+import com.cookBook.App.model.NotificationMessage;
+import com.cookBook.App.model.Post;
+import com.cookBook.App.model.ProgressUpdate;
+import com.cookBook.App.model.User;
+import com.cookBook.App.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// Deletes an account and everything it owns in the background.
+// The request only records a job in account_deletion_jobs; a poller claims jobs atomically (jobs
+// left RUNNING by a crashed node are reclaimed once stale) and works through the phases in order,
+// removing at most one batch of documents per round trip. Every phase repeats "find a batch, delete
+// it" until nothing matches, so a resumed job simply restarts its current phase. Counter updates for
+// a batch happen after its documents are deleted: a crash in between can leave at most one batch of
+// counters too high (the post counter reconciler repairs like and comment counts), never too low.
+// Removed likes and comments are also taken out of recommendations and close-friend scores.
+@Service
+public class AccountDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_ATTEMPTS = 5;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthorNameCache authorNameCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private ChatSessionRegistry chatSessionRegistry;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private FollowSuggestionService followSuggestionService;
+
+    @Autowired
+    private LikeIngestionBuffer likeIngestionBuffer;
+
+    @Autowired
+    private InteractionService interactionService;
+
+    private final long staleAfterMinutes;
+    private final AtomicBoolean polling = new AtomicBoolean();
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-deletion");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AccountDeletionService(@Value("${app.account-deletion.stale-after-minutes:5}") long staleAfterMinutes) {
+        this.staleAfterMinutes = staleAfterMinutes;
+    }
+
+    // Records a deletion job for the caller's own account and starts it; repeated requests return the same job
+    public AccountDeletionJob requestDeletion(String principal, String userId) {
+        if (principal == null || principal.trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid principal");
+        }
+        if (userId == null || userId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Invalid user ID");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+        if (!principal.equals(user.getProviderId())) {
+            throw new IllegalArgumentException("Unauthorized: You can only delete your own account");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        AccountDeletionJob job = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("userId").is(userId)),
+                new Update()
+                        .setOnInsert("userName", user.getName())
+                        .setOnInsert("providerId", user.getProviderId())
+                        .setOnInsert("status", AccountDeletionJob.Status.PENDING)
+                        .setOnInsert("phase", AccountDeletionJob.Phase.values()[0])
+                        .setOnInsert("attempts", 0)
+                        .setOnInsert("createdAt", now)
+                        .setOnInsert("updatedAt", now),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                AccountDeletionJob.class
+        );
+        if (job != null && job.getStatus() == AccountDeletionJob.Status.FAILED) {
+            // Asking again retries a job that gave up
+            job = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("id").is(job.getId()).and("status").is(AccountDeletionJob.Status.FAILED)),
+                    new Update().set("status", AccountDeletionJob.Status.PENDING).set("attempts", 0).set("updatedAt", now),
+                    FindAndModifyOptions.options().returnNew(true),
+                    AccountDeletionJob.class
+            );
+        }
+        runner.execute(this::poll);
+        return job;
+    }
+
+    // The job, if it belongs to the caller
+    public Optional<AccountDeletionJob> getJob(String principal, String jobId) {
+        return Optional.ofNullable(mongoTemplate.findById(jobId, AccountDeletionJob.class))
+                .filter(job -> principal != null && principal.equals(job.getProviderId()));
+    }
+
+    @Scheduled(initialDelayString = "${app.account-deletion.poll-interval-ms:30000}", fixedDelayString = "${app.account-deletion.poll-interval-ms:30000}")
+    public void poll() {
+        // The poll already running claims every pending job; don't hold the shared scheduler thread waiting for it
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            AccountDeletionJob job;
+            while ((job = claimNext()) != null) {
+                process(job);
+            }
+        } catch (Exception e) {
+            logger.error("Account deletion poll failed: {}", e.getMessage());
+        } finally {
+            polling.set(false);
+        }
+    }
+
+    private AccountDeletionJob claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(AccountDeletionJob.Status.PENDING),
+                Criteria.where("status").is(AccountDeletionJob.Status.RUNNING).and("updatedAt").lt(now.minusMinutes(staleAfterMinutes))
+        );
+        return mongoTemplate.findAndModify(
+                Query.query(claimable),
+                new Update().set("status", AccountDeletionJob.Status.RUNNING).set("updatedAt", now).inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                AccountDeletionJob.class
+        );
+    }
+
+    private void process(AccountDeletionJob job) {
+        long start = System.currentTimeMillis();
+        try {
+            AccountDeletionJob.Phase[] phases = AccountDeletionJob.Phase.values();
+            for (int i = job.getPhase().ordinal(); i < phases.length; i++) {
+                AccountDeletionJob.Phase phase = phases[i];
+                int removed;
+                do {
+                    removed = runBatch(job, phase);
+                    // Also the heartbeat that keeps other nodes from reclaiming the job
+                    mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(job.getId())),
+                            new Update().inc("deleted." + phase.name(), removed).set("updatedAt", LocalDateTime.now()),
+                            AccountDeletionJob.class);
+                } while (removed == BATCH_SIZE);
+                Update next = new Update().set("updatedAt", LocalDateTime.now());
+                if (i + 1 < phases.length) {
+                    next.set("phase", phases[i + 1]);
+                } else {
+                    next.set("status", AccountDeletionJob.Status.DONE);
+                }
+                mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(job.getId())), next, AccountDeletionJob.class);
+            }
+            logger.info("Deleted account {} in {} ms", job.getUserId(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.warn("Account deletion attempt {} failed for {}: {}", job.getAttempts(), job.getUserId(), e.getMessage());
+            AccountDeletionJob.Status status = job.getAttempts() >= MAX_ATTEMPTS
+                    ? AccountDeletionJob.Status.FAILED : AccountDeletionJob.Status.PENDING;
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(job.getId())),
+                    new Update().set("status", status).set("error", e.getMessage()).set("updatedAt", LocalDateTime.now()),
+                    AccountDeletionJob.class
+            );
+        }
+    }
+
+    // Removes up to BATCH_SIZE documents for the phase and returns how many it removed
+    private int runBatch(AccountDeletionJob job, AccountDeletionJob.Phase phase) {
+        String userId = job.getUserId();
+        switch (phase) {
+            case FOLLOWERS: {
+                List<Follow> edges = removeBatch(Query.query(Criteria.where("followeeId").is(userId)), Follow.class,
+                        Follow::getId, "followerId");
+                List<String> followerIds = edges.stream().map(Follow::getFollowerId).toList();
+                userRepository.detachFromGraph(userId, followerIds, List.of());
+                userCache.invalidateAll(followerIds);
+                edges.forEach(edge -> followSuggestionService.onUnfollow(edge.getFollowerId(), userId));
+                return edges.size();
+            }
+            case FOLLOWING: {
+                List<Follow> edges = removeBatch(Query.query(Criteria.where("followerId").is(userId)), Follow.class,
+                        Follow::getId, "followeeId");
+                List<String> followeeIds = edges.stream().map(Follow::getFolloweeId).toList();
+                userRepository.detachFromGraph(userId, List.of(), followeeIds);
+                userCache.invalidateAll(followeeIds);
+                edges.forEach(edge -> followSuggestionService.onUnfollow(userId, edge.getFolloweeId()));
+                return edges.size();
+            }
+            case LIKES: {
+                // Buffered likes would otherwise be written after this phase has finished
+                likeIngestionBuffer.cancelAll(userId);
+                List<Like> likes = removeBatch(Query.query(Criteria.where("userId").is(userId)), Like.class,
+                        Like::getId, "postId", "user", "postCategory", "timestamp");
+                decrementPostCounters(likes, Like::getPostId, "likeCount");
+                for (Like like : likes) {
+                    recommendationService.onUnlike(userId, like.getPostId(), like.getPostCategory());
+                    interactionService.removeLike(like);
+                }
+                return likes.size();
+            }
+            case COMMENTS: {
+                // By author id only: display names aren't unique. Old comments that the backfill
+                // couldn't attribute (see CommentAuthorMigration) have no id and are left in place.
+                List<Comment> comments = removeBatch(Query.query(Criteria.where("userId").is(userId)), Comment.class,
+                        Comment::getId, "postId", "user", "timestamp", "createdAt");
+                decrementPostCounters(comments, Comment::getPostId, "commentCount");
+                comments.forEach(interactionService::removeComment);
+                return comments.size();
+            }
+            case POSTS: {
+                Query query = Query.query(Criteria.where("userId").is(userId)).limit(BATCH_SIZE);
+                query.fields().include("id", "userId", "timestamp");
+                List<Post> posts = mongoTemplate.find(query, Post.class);
+                List<String> postIds = posts.stream().map(Post::getId).toList();
+                if (postIds.isEmpty()) {
+                    return 0;
+                }
+                // Likes and comments first, so a crash never leaves them pointing at a deleted post
+                mongoTemplate.remove(Query.query(Criteria.where("postId").in(postIds)), Like.class);
+                mongoTemplate.remove(Query.query(Criteria.where("postId").in(postIds)), Comment.class);
+                mongoTemplate.remove(Query.query(Criteria.where("id").in(postIds)), Post.class);
+                for (Post post : posts) {
+                    recommendationService.onPostDeleted(post.getId());
+                    postSearchIndex.remove(post.getId());
+                    timelineService.onPostDeleted(post);
+                }
+                return postIds.size();
+            }
+            case PROGRESS_UPDATES: {
+                Object userRef = ObjectId.isValid(userId) ? new ObjectId(userId) : userId;
+                return removeBatch(Query.query(Criteria.where("user.$id").is(userRef)), ProgressUpdate.class,
+                        ProgressUpdate::getId).size();
+            }
+            case LEARNING_PLANS:
+                return removeBatch(Query.query(Criteria.where("userid").is(userId)), LearningPlan.class,
+                        LearningPlan::getId).size();
+            case NOTIFICATIONS:
+                return removeBatch(Query.query(Criteria.where("recipientId").is(userId)), NotificationMessage.class,
+                        NotificationMessage::getId).size();
+            case ACCOUNT: {
+                mongoTemplate.remove(Query.query(Criteria.where("id").is(userId)), NotificationCounter.class);
+                userRepository.deleteById(userId);
+                authorNameCache.invalidate(userId);
+                userCache.invalidate(userId);
+                timelineService.invalidate(userId);
+                chatSessionRegistry.onUserDeleted(userId);
+                return 1;
+            }
+            default:
+                throw new IllegalStateException("Unknown phase " + phase);
+        }
+    }
+
+    // Finds one batch matching the query, reading only the given fields, and deletes exactly those documents
+    private <T> List<T> removeBatch(Query query, Class<T> type, Function<T, String> idOf, String... fields) {
+        query.limit(BATCH_SIZE).fields().include("id").include(fields);
+        List<T> batch = mongoTemplate.find(query, type);
+        if (!batch.isEmpty()) {
+            mongoTemplate.remove(Query.query(Criteria.where("id").in(batch.stream().map(idOf).toList())), type);
+        }
+        return batch;
+    }
+
+    private <T> void decrementPostCounters(List<T> removed, Function<T, String> postIdOf, String counter) {
+        Map<String, Long> decrements = new HashMap<>();
+        for (T document : removed) {
+            String postId = postIdOf.apply(document);
+            if (postId != null) {
+                decrements.merge(postId, 1L, Long::sum);
+            }
+        }
+        if (decrements.isEmpty()) {
+            return;
+        }
+        BulkOperations counters = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        decrements.forEach((postId, delta) ->
+                counters.updateOne(Query.query(Criteria.where("id").is(postId)), new Update().inc(counter, -delta)));
+        counters.execute();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // An interrupted job stays RUNNING and is reclaimed once stale
+        runner.shutdownNow();
+    }
+}
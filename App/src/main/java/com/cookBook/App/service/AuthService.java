@@ -17,6 +17,9 @@ public class AuthService extends DefaultOAuth2UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserCache userCache;
+
     @Override
     public OAuth2User loadUser(OAuth2UserRequest userRequest) throws OAuth2AuthenticationException {
         OAuth2User oAuth2User = super.loadUser(userRequest);
@@ -59,12 +62,13 @@ public class AuthService extends DefaultOAuth2UserService {
             }
         }
 
-        userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(saved.getId());
         return oAuth2User;
     }
 
     public Optional<User> findByProviderId(String providerId) {
-        return userRepository.findByProviderId(providerId);
+        return userCache.findByProviderId(providerId, userRepository::findByProviderId);
     }
 }
 
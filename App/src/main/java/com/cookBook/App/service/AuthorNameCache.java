@@ -0,0 +1,45 @@
+package com.cookBook.App.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Bounded LRU of userId -> display name used when hydrating post authors
+@Component
+public class AuthorNameCache {
+
+    private final Map<String, String> names;
+
+    public AuthorNameCache(@Value("${app.cache.author-names.max-size:10000}") int maxSize) {
+        this.names = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    // Returns the cached names for the given ids; ids that are not cached are absent from the result
+    public synchronized Map<String, String> getAll(Collection<String> userIds) {
+        Map<String, String> found = new HashMap<>();
+        for (String userId : userIds) {
+            String name = names.get(userId);
+            if (name != null) {
+                found.put(userId, name);
+            }
+        }
+        return found;
+    }
+
+    public synchronized void putAll(Map<String, String> resolved) {
+        names.putAll(resolved);
+    }
+
+    public synchronized void invalidate(String userId) {
+        names.remove(userId);
+    }
+}
@@ -0,0 +1,133 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.ChatMessage;
+import org.bson.types.ObjectId;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.UnaryOperator;
+
+// Bounded ring of the most recent chat messages: lock-free readers, serialized writers.
+// Writers claim a sequence number and publish into slot (sequence & mask); readers walk back
+// from the head and stop at the first slot that doesn't hold the sequence they expect, so a
+// page is always a contiguous run of history. Sequence numbers start at the capacity: the
+// slots below are reserved for seeding older messages from Mongo after startup, which then
+// meet live appends in the middle without overwriting them.
+// Live messages get their ObjectId under the same lock that claims their sequence, so the ring
+// is ordered by id and a before= page is exactly the run of ids below beforeId. Appends take
+// that lock on purpose: a CAS on the sequence alone can't keep id order and ring order the same.
+class ChatHistoryBuffer {
+
+    private record Slot(long sequence, ChatMessage message) {
+    }
+
+    private final AtomicReferenceArray<Slot> slots;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLong next;
+
+    ChatHistoryBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.next = new AtomicLong(capacity);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    // Assigns the message a new ObjectId and appends it; only writers serialize here, readers stay lock-free
+    synchronized void appendWithNewId(ChatMessage message) {
+        message.setId(new ObjectId().toHexString());
+        long sequence = next.getAndIncrement();
+        slots.set(index(sequence), new Slot(sequence, message));
+    }
+
+    // Places history older than anything appended so far, newest first; stops when the seeds
+    // would overwrite live messages. Returns the number of messages placed.
+    int seed(List<ChatMessage> newestFirst) {
+        int placed = 0;
+        long sequence = capacity - 1;
+        for (ChatMessage message : newestFirst) {
+            if (sequence < 0 || !slots.compareAndSet(index(sequence), null, new Slot(sequence, message))) {
+                break;
+            }
+            sequence--;
+            placed++;
+        }
+        return placed;
+    }
+
+    // Id of the oldest live (non-seeded) message, or null if nothing was appended yet
+    String oldestAppendedId() {
+        Slot slot = slots.get(index(capacity));
+        return slot != null && slot.sequence() == capacity && slot.message() != null ? slot.message().getId() : null;
+    }
+
+    // The buffered message with the given id, if it's still buffered and not deleted
+    ChatMessage find(String id) {
+        long head = next.get();
+        for (long sequence = head - 1; sequence >= 0 && sequence >= head - capacity; sequence--) {
+            Slot slot = slots.get(index(sequence));
+            if (slot == null || slot.sequence() != sequence) {
+                return null;
+            }
+            if (slot.message() != null && id.equals(slot.message().getId())) {
+                return slot.message();
+            }
+        }
+        return null;
+    }
+
+    // Replaces the message with the given id in place; returns false if it's no longer buffered
+    boolean replace(String id, UnaryOperator<ChatMessage> change) {
+        long head = next.get();
+        for (long sequence = head - 1; sequence >= 0 && sequence >= head - capacity; sequence--) {
+            int index = index(sequence);
+            Slot slot = slots.get(index);
+            if (slot == null || slot.sequence() != sequence) {
+                return false;
+            }
+            if (slot.message() != null && id.equals(slot.message().getId())) {
+                return slots.compareAndSet(index, slot, new Slot(sequence, change.apply(slot.message())));
+            }
+        }
+        return false;
+    }
+
+    // Marks the message as deleted so readers skip it
+    boolean remove(String id) {
+        return replace(id, message -> null);
+    }
+
+    // Up to limit messages older than beforeId (or the newest, if null), newest first.
+    // May return fewer than limit when the buffer runs out; the caller continues from Mongo.
+    List<ChatMessage> page(String beforeId, int limit) {
+        List<ChatMessage> page = new ArrayList<>(limit);
+        Set<String> seen = new HashSet<>();
+        long head = next.get();
+        for (long sequence = head - 1; sequence >= 0 && sequence >= head - capacity && page.size() < limit; sequence--) {
+            Slot slot = slots.get(index(sequence));
+            if (slot == null || slot.sequence() != sequence) {
+                break; // Not published yet, overwritten, or not seeded
+            }
+            ChatMessage message = slot.message();
+            if (message == null || message.getId() == null || !seen.add(message.getId())) {
+                continue;
+            }
+            if (beforeId == null || message.getId().compareTo(beforeId) < 0) {
+                page.add(message);
+            }
+        }
+        return page;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,175 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.ChatMessage;
+import com.mongodb.bulk.BulkWriteError;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Persists chat messages behind the broadcast. Operations are queued in the order they happen
+// and applied by a single writer thread, so an edit or delete never overtakes the insert of the
+// same message; runs of consecutive inserts are written with one unordered bulk insert.
+// A retried insert only resends the messages that failed, and a duplicate key on a message
+// stored by an earlier attempt counts as success, so a partial failure never drops the rest.
+// The queue is bounded: when the database falls behind, senders block instead of growing memory.
+@Service
+public class ChatMessageWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatMessageWriter.class);
+    private static final int MAX_BATCH = 500;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int DUPLICATE_KEY = 11000;
+
+    private enum Kind { INSERT, REPLACE, DELETE }
+
+    private record Operation(Kind kind, ChatMessage message, String id) {
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final BlockingQueue<Operation> queue;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public ChatMessageWriter(@Value("${app.chat.write-queue-capacity:10000}") int queueCapacity) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::run, "chat-writer");
+        this.writer.setDaemon(true);
+    }
+
+    // Started once injection is done, so the writer never sees a null MongoTemplate
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    public void insert(ChatMessage message) {
+        enqueue(new Operation(Kind.INSERT, message, message.getId()));
+    }
+
+    public void replace(ChatMessage message) {
+        enqueue(new Operation(Kind.REPLACE, message, message.getId()));
+    }
+
+    public void delete(String id) {
+        enqueue(new Operation(Kind.DELETE, null, id));
+    }
+
+    private void enqueue(Operation operation) {
+        try {
+            queue.put(operation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing chat message " + operation.id(), e);
+        }
+    }
+
+    private void run() {
+        List<Operation> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                Operation first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Operation> batch) {
+        int i = 0;
+        while (i < batch.size()) {
+            Operation operation = batch.get(i);
+            if (operation.kind() == Kind.INSERT) {
+                List<ChatMessage> inserts = new ArrayList<>();
+                while (i < batch.size() && batch.get(i).kind() == Kind.INSERT) {
+                    inserts.add(batch.get(i++).message());
+                }
+                withRetry("insert " + inserts.size() + " chat messages", () -> insertUnordered(inserts));
+            } else if (operation.kind() == Kind.REPLACE) {
+                withRetry("update chat message " + operation.id(), () -> mongoTemplate.save(operation.message()));
+                i++;
+            } else {
+                withRetry("delete chat message " + operation.id(),
+                        () -> mongoTemplate.remove(Query.query(Criteria.where("id").is(operation.id())), ChatMessage.class));
+                i++;
+            }
+        }
+    }
+
+    // Leaves only the messages that still need inserting in the list and throws if there are any
+    private void insertUnordered(List<ChatMessage> messages) {
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessage.class).insert(messages).execute();
+            messages.clear();
+        } catch (BulkOperationException e) {
+            // Duplicate keys are messages an earlier attempt already stored
+            List<ChatMessage> failed = new ArrayList<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    failed.add(messages.get(error.getIndex()));
+                }
+            }
+            messages.clear();
+            messages.addAll(failed);
+            if (!failed.isEmpty()) {
+                throw e;
+            }
+        }
+    }
+
+    private void withRetry(String description, Runnable write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                write.run();
+                return;
+            } catch (Exception e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    logger.error("Failed to {} after {} attempts, dropping: {}", description, attempt, e.getMessage());
+                    return;
+                }
+                logger.warn("Failed to {} (attempt {}), retrying: {}", description, attempt, e.getMessage());
+                try {
+                    Thread.sleep(100L << attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // The writer notices within one poll interval and drains what is left before exiting
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (!queue.isEmpty()) {
+            logger.error("{} chat writes could not be persisted before shutdown", queue.size());
+        }
+    }
+}
@@ -3,16 +3,30 @@ package com.cookBook.App.service;
 import com.cookBook.App.model.ChatMessage;
 import com.cookBook.App.model.User;
 import com.cookBook.App.repository.ChatMessageRepository;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class ChatService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
+
+    public static final int MAX_HISTORY_PAGE = 100;
+
     @Autowired
     private ChatMessageRepository chatMessageRepository;
 
@@ -22,24 +36,62 @@ public class ChatService {
     @Autowired
     private UserService userService;
 
-    public void sendMessage(String providerId, String content) {
+    @Autowired
+    private ChatMessageWriter chatMessageWriter;
+
+    // Recent history served without touching Mongo; seeded in the background after startup
+    private final ChatHistoryBuffer recentMessages;
+
+    public ChatService(@Value("${app.chat.history-capacity:1024}") int historyCapacity) {
+        this.recentMessages = new ChatHistoryBuffer(historyCapacity);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmHistory() {
         try {
-            User sender = userService.findByProviderId(providerId);
-            if (sender == null) {
-                throw new IllegalArgumentException("User not found for providerId: " + providerId);
-            }
+            String oldestLive = recentMessages.oldestAppendedId();
+            PageRequest page = PageRequest.of(0, recentMessages.capacity());
+            List<ChatMessage> history = oldestLive != null
+                    ? chatMessageRepository.findByIdLessThanOrderByIdDesc(oldestLive, page)
+                    : chatMessageRepository.findAllByOrderByIdDesc(page);
+            logger.info("Seeded chat history buffer with {} messages", recentMessages.seed(history));
+        } catch (Exception e) {
+            logger.error("Failed to seed chat history buffer, history will be read from Mongo: {}", e.getMessage());
+        }
+    }
 
+    // Identity of the user sending chat frames; normally read from the WebSocket session
+    public record Sender(String id, String name) {
+    }
+
+    // Uses the identity cached at STOMP CONNECT, falling back to a lookup for sessions without one
+    public Sender senderFor(String providerId, Map<String, Object> sessionAttributes) {
+        if (sessionAttributes != null && sessionAttributes.get(ChatSessionRegistry.SENDER_ID) != null) {
+            return new Sender((String) sessionAttributes.get(ChatSessionRegistry.SENDER_ID),
+                    (String) sessionAttributes.get(ChatSessionRegistry.SENDER_NAME));
+        }
+        User user = userService.findByProviderId(providerId);
+        if (user == null) {
+            throw new IllegalArgumentException("User not found for providerId: " + providerId);
+        }
+        return new Sender(user.getId(), user.getName());
+    }
+
+    public void sendMessage(Sender sender, String content) {
+        try {
             ChatMessage message = new ChatMessage(
-                    sender.getId(),
-                    sender.getName(),
+                    sender.id(),
+                    sender.name(),
                     content,
                     LocalDateTime.now()
             );
 
-            ChatMessage savedMessage = chatMessageRepository.save(message);
-            System.out.println("Saved message to DB: " + savedMessage.getId());
-
-            messagingTemplate.convertAndSend("/topic/groupchat", savedMessage);
+            // The id is assigned here (ObjectIds are time-ordered) so the message can be
+            // delivered before it is persisted; the buffer assigns it to keep itself sorted by id
+            recentMessages.appendWithNewId(message);
+            messagingTemplate.convertAndSend("/topic/groupchat", message);
+            chatMessageWriter.insert(message);
         } catch (Exception e) {
             System.err.println("Error sending message: " + e.getMessage());
             e.printStackTrace();
@@ -47,25 +99,21 @@ public class ChatService {
         }
     }
 
-    public void updateMessage(String messageId, String providerId, String newContent) {
+    public void updateMessage(String messageId, Sender sender, String newContent) {
         try {
-            User sender = userService.findByProviderId(providerId);
-            if (sender == null) {
-                throw new IllegalArgumentException("User not found for providerId: " + providerId);
-            }
-
-            ChatMessage message = chatMessageRepository.findById(messageId)
-                    .orElseThrow(() -> new IllegalArgumentException("Message not found: " + messageId));
+            ChatMessage message = findMessage(messageId);
 
-            if (!message.getSenderId().equals(sender.getId())) {
+            if (!message.getSenderId().equals(sender.id())) {
                 throw new SecurityException("User not authorized to edit this message");
             }
 
-            message.setContent(newContent);
-            message.setTimestamp(LocalDateTime.now());
+            // Buffered messages are shared with readers, so edits go to a copy
+            ChatMessage updatedMessage = new ChatMessage(message.getSenderId(), message.getSenderName(), newContent, LocalDateTime.now());
+            updatedMessage.setId(messageId);
 
-            ChatMessage updatedMessage = chatMessageRepository.save(message);
+            recentMessages.replace(messageId, buffered -> updatedMessage);
             messagingTemplate.convertAndSend("/topic/groupchat", updatedMessage);
+            chatMessageWriter.replace(updatedMessage);
         } catch (Exception e) {
             System.err.println("Error updating message: " + e.getMessage());
             e.printStackTrace();
@@ -73,25 +121,20 @@ public class ChatService {
         }
     }
 
-    public void deleteMessage(String messageId, String providerId) {
+    public void deleteMessage(String messageId, Sender sender) {
         try {
-            User sender = userService.findByProviderId(providerId);
-            if (sender == null) {
-                throw new IllegalArgumentException("User not found for providerId: " + providerId);
-            }
-
-            ChatMessage message = chatMessageRepository.findById(messageId)
-                    .orElseThrow(() -> new IllegalArgumentException("Message not found: " + messageId));
+            ChatMessage message = findMessage(messageId);
 
-            if (!message.getSenderId().equals(sender.getId())) {
+            if (!message.getSenderId().equals(sender.id())) {
                 throw new SecurityException("User not authorized to delete this message");
             }
 
-            chatMessageRepository.deleteById(messageId);
+            recentMessages.remove(messageId);
+            chatMessageWriter.delete(messageId);
             // Send a delete notification with the deleted message ID
             ChatMessage deleteNotification = new ChatMessage(
-                    sender.getId(),
-                    sender.getName(),
+                    sender.id(),
+                    sender.name(),
                     "[DELETED]",
                     LocalDateTime.now()
             );
@@ -104,7 +147,27 @@ public class ChatService {
         }
     }
 
-    public List<ChatMessage> getRecentMessages() {
-        return chatMessageRepository.findTop20ByOrderByTimestampDesc();
+    // Recent messages may not be persisted yet, so the buffer is checked first
+    private ChatMessage findMessage(String messageId) {
+        ChatMessage buffered = recentMessages.find(messageId);
+        if (buffered != null) {
+            return buffered;
+        }
+        return chatMessageRepository.findById(messageId)
+                .orElseThrow(() -> new IllegalArgumentException("Message not found: " + messageId));
+    }
+
+    // Newest-first messages older than beforeId (or the newest, if null). Served from the
+    // in-memory buffer; only pages reaching past it query Mongo, on the _id index.
+    public List<ChatMessage> getHistory(String beforeId, int limit) {
+        List<ChatMessage> page = new ArrayList<>(recentMessages.page(beforeId, limit));
+        if (page.size() < limit) {
+            String olderThan = page.isEmpty() ? beforeId : page.get(page.size() - 1).getId();
+            PageRequest remaining = PageRequest.of(0, limit - page.size());
+            page.addAll(olderThan != null
+                    ? chatMessageRepository.findByIdLessThanOrderByIdDesc(olderThan, remaining)
+                    : chatMessageRepository.findAllByOrderByIdDesc(remaining));
+        }
+        return page;
     }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.User;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tracks the WebSocket sessions of each user so the sender identity cached in their session
+// attributes at STOMP CONNECT can be kept current when the user's profile changes
+@Service
+public class ChatSessionRegistry {
+
+    public static final String SENDER_ID = "chat.senderId";
+    public static final String SENDER_NAME = "chat.senderName";
+
+    private final Map<String, Map<String, Object>> attributesBySession = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+
+    public void register(String sessionId, Map<String, Object> sessionAttributes, User user) {
+        sessionAttributes.put(SENDER_ID, user.getId());
+        sessionAttributes.put(SENDER_NAME, user.getName());
+        attributesBySession.put(sessionId, sessionAttributes);
+        sessionsByUser.computeIfAbsent(user.getId(), id -> ConcurrentHashMap.newKeySet()).add(sessionId);
+    }
+
+    public void unregister(String sessionId) {
+        Map<String, Object> attributes = attributesBySession.remove(sessionId);
+        if (attributes == null) {
+            return;
+        }
+        Object userId = attributes.get(SENDER_ID);
+        if (userId != null) {
+            sessionsByUser.computeIfPresent(userId.toString(), (id, sessions) -> {
+                sessions.remove(sessionId);
+                return sessions.isEmpty() ? null : sessions;
+            });
+        }
+    }
+
+    // Pushes the new display name into every open session of the user
+    public void onUserUpdated(User user) {
+        Set<String> sessions = sessionsByUser.get(user.getId());
+        if (sessions == null) {
+            return;
+        }
+        for (String sessionId : sessions) {
+            Map<String, Object> attributes = attributesBySession.get(sessionId);
+            if (attributes != null) {
+                attributes.put(SENDER_NAME, user.getName());
+            }
+        }
+    }
+
+    // Drops the cached identity so frames from the user's open sessions are looked up (and rejected)
+    public void onUserDeleted(String userId) {
+        Set<String> sessions = sessionsByUser.remove(userId);
+        if (sessions == null) {
+            return;
+        }
+        for (String sessionId : sessions) {
+            Map<String, Object> attributes = attributesBySession.remove(sessionId);
+            if (attributes != null) {
+                attributes.remove(SENDER_ID);
+                attributes.remove(SENDER_NAME);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Comment;
+import com.cookBook.App.model.User;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// One-time backfill of Comment.userId for comments written before the author id was stored.
+// Those comments only carry the author's display name, and names aren't unique: a name is only
+// attributed when exactly one user has it. Comments under names shared by several users (or no
+// longer held by anyone) keep no author id, so they are never picked up by account deletion.
+@Service
+public class CommentAuthorMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommentAuthorMigration.class);
+    private static final String MIGRATIONS = "migrations";
+    private static final String MIGRATION_ID = "comment-author-ids";
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            if (mongoTemplate.getCollection(MIGRATIONS).countDocuments(new Document("_id", MIGRATION_ID)) > 0) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(Criteria.where("userId").exists(false).and("user").ne(null)),
+                    Aggregation.group("user"));
+            List<String> names = mongoTemplate.aggregate(aggregation, Comment.class, Document.class).getMappedResults()
+                    .stream().map(group -> group.getString("_id")).filter(Objects::nonNull).toList();
+
+            long attributed = 0;
+            for (int from = 0; from < names.size(); from += BATCH_SIZE) {
+                attributed += attribute(names.subList(from, Math.min(from + BATCH_SIZE, names.size())));
+            }
+
+            mongoTemplate.getCollection(MIGRATIONS).insertOne(new Document("_id", MIGRATION_ID).append("completedAt", new Date()));
+            logger.info("Attributed {} of {} comment author names in {} ms", attributed, names.size(),
+                    System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Comment author backfill failed, it will run again on the next start: {}", e.getMessage(), e);
+        }
+    }
+
+    // Sets userId on the comments of every name in the batch that belongs to exactly one user
+    private int attribute(List<String> names) {
+        Query query = Query.query(Criteria.where("name").in(names));
+        query.fields().include("name");
+        Map<String, String> owners = new HashMap<>();
+        Map<String, Integer> holders = new HashMap<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            owners.put(user.getName(), user.getId());
+            holders.merge(user.getName(), 1, Integer::sum);
+        }
+
+        BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class);
+        int attributed = 0;
+        for (Map.Entry<String, String> owner : owners.entrySet()) {
+            if (holders.get(owner.getKey()) != 1) {
+                continue;
+            }
+            updates.updateMulti(Query.query(Criteria.where("user").is(owner.getKey()).and("userId").exists(false)),
+                    new Update().set("userId", owner.getValue()));
+            attributed++;
+        }
+        if (attributed > 0) {
+            updates.execute();
+        }
+        return attributed;
+    }
+}
@@ -0,0 +1,48 @@
+package com.cookBook.App.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
+
+// Encodes keyset positions as opaque, URL-safe continuation tokens
+public final class CursorCodec {
+
+    private static final String SEPARATOR = ",";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Returns exactly expectedParts values, or throws IllegalArgumentException for a malformed token
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, expectedParts);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    // Timestamps are keyed at millisecond precision, which is what Mongo stores
+    public static String encodeTimestamp(LocalDateTime timestamp) {
+        return Long.toString(timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public static LocalDateTime decodeTimestamp(String value) {
+        try {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(value)), ZoneId.systemDefault());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
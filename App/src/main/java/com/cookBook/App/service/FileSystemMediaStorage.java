@@ -0,0 +1,188 @@
+package com.cookBook.App.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Content-addressed media store on the local filesystem.
+// Uploads are streamed through a SHA-256 digest into a temp file, then atomically moved to
+// <root>/media/<h[0..2]>/<h[2..4]>/<hash>, so identical uploads share one blob whatever they were
+// named, and no directory grows beyond a few hundred entries. The content type taken from the
+// first upload's file name is kept next to it under <root>/media-meta/ with the same layout.
+@Service
+public class FileSystemMediaStorage implements MediaStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path mediaRoot;
+    private final Path metaRoot;
+    private final Path tempRoot;
+    private final String urlPrefix;
+    private final long maxBytes;
+    private final Map<Path, LegacyHash> legacyHashes = new ConcurrentHashMap<>();
+
+    private record LegacyHash(String version, String hash) {
+    }
+
+    public FileSystemMediaStorage(@Value("${app.media.root:Uploads}") String root,
+                                  @Value("${app.media.max-size-bytes:52428800}") long maxBytes) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.mediaRoot = this.root.resolve("media");
+        this.metaRoot = this.root.resolve("media-meta");
+        this.tempRoot = this.root.resolve("tmp");
+        this.urlPrefix = "/" + Paths.get(root).getFileName() + "/";
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public String store(InputStream content, String originalFilename) throws IOException {
+        Files.createDirectories(tempRoot);
+        Path temp = tempRoot.resolve(UUID.randomUUID() + ".part");
+        try {
+            String hash = copyAndDigest(content, temp);
+            String shard = hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+            String relative = "media/" + shard;
+            Path target = root.resolve(relative);
+            if (Files.exists(target)) {
+                return urlPrefix + relative; // Already stored
+            }
+            // Metadata goes first, so a blob that exists always has its content type
+            writeContentType(metaRoot.resolve(shard), originalFilename);
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // A concurrent upload of the same content won the race
+            }
+            return urlPrefix + relative;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Path> resolve(String url) {
+        if (url == null || !url.startsWith(urlPrefix)) {
+            return Optional.empty();
+        }
+        Path path = root.resolve(url.substring(urlPrefix.length())).normalize();
+        if (!path.startsWith(root) || path.startsWith(tempRoot) || path.startsWith(metaRoot) || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(path);
+    }
+
+    @Override
+    public String contentType(Path path) throws IOException {
+        if (path.startsWith(mediaRoot)) {
+            Path meta = metaRoot.resolve(mediaRoot.relativize(path));
+            if (Files.isRegularFile(meta)) {
+                return Files.readString(meta, StandardCharsets.UTF_8).trim();
+            }
+        }
+        // Legacy uploads (and blobs stored before the metadata existed) are named with their extension
+        return MediaTypeFactory.getMediaType(path.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+    }
+
+    @Override
+    public String contentHash(Path path) throws IOException {
+        if (path.startsWith(mediaRoot)) {
+            String name = path.getFileName().toString();
+            int dot = name.indexOf('.');
+            return dot >= 0 ? name.substring(0, dot) : name; // Content-addressed: the name is the hash
+        }
+        // Legacy uploads are hashed once per (size, mtime)
+        String version = Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+        LegacyHash cached = legacyHashes.get(path);
+        if (cached != null && cached.version().equals(version)) {
+            return cached.hash();
+        }
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        legacyHashes.put(path, new LegacyHash(version, hash));
+        return hash;
+    }
+
+    private String copyAndDigest(InputStream content, Path temp) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long written = 0;
+        try (ReadableByteChannel source = Channels.newChannel(content);
+             FileChannel target = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                written += buffer.remaining();
+                if (written > maxBytes) {
+                    throw new MediaTooLargeException(maxBytes);
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            }
+            target.force(false);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private void writeContentType(Path meta, String originalFilename) throws IOException {
+        if (Files.exists(meta)) {
+            return;
+        }
+        String filename = StringUtils.cleanPath(originalFilename != null ? originalFilename : "").toLowerCase(Locale.ROOT);
+        String contentType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        Files.createDirectories(meta.getParent());
+        Path temp = tempRoot.resolve(UUID.randomUUID() + ".meta");
+        try {
+            Files.writeString(temp, contentType, StandardCharsets.UTF_8);
+            Files.move(temp, meta, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // A concurrent upload of the same content wrote it first
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.cookBook.App.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+// Follow graph with users mapped to dense int indexes. The bulk of the edges sit in a
+// compressed sparse row layout (offsets/targets, each row sorted); follows and unfollows
+// since the last build go to a small overlay of added and removed edges.
+// Not thread-safe: FollowSuggestionService guards it with a read/write lock.
+final class FollowGraph {
+
+    // Rough per-entry overheads for the memory estimate: an id String plus its map entry, and an overlay entry
+    private static final long BYTES_PER_NODE = 128;
+    private static final long BYTES_PER_OVERLAY_EDGE = 64;
+
+    record Candidate(String userId, int mutualCount) {
+    }
+
+    private static final Comparator<Candidate> BEST_FIRST = Comparator
+            .comparingInt(Candidate::mutualCount).reversed()
+            .thenComparing(Candidate::userId);
+
+    private final List<String> ids;
+    private final Map<String, Integer> indexOf;
+    private final int[] offsets; // Row i of the base layout is targets[offsets[i]..offsets[i + 1])
+    private final int[] targets;
+    private final Map<Integer, Set<Integer>> added = new HashMap<>();
+    private final Map<Integer, Set<Integer>> removed = new HashMap<>();
+    private int overlaySize;
+
+    private FollowGraph(List<String> ids, Map<String, Integer> indexOf, int[] offsets, int[] targets) {
+        this.ids = ids;
+        this.indexOf = indexOf;
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    static final class Builder {
+        private final List<String> ids = new ArrayList<>();
+        private final Map<String, Integer> indexOf = new HashMap<>();
+        private int[] sources = new int[1024];
+        private int[] destinations = new int[1024];
+        private int edgeCount;
+
+        void add(String followerId, String followeeId) {
+            if (edgeCount == sources.length) {
+                sources = Arrays.copyOf(sources, edgeCount * 2);
+                destinations = Arrays.copyOf(destinations, edgeCount * 2);
+            }
+            sources[edgeCount] = index(followerId);
+            destinations[edgeCount] = index(followeeId);
+            edgeCount++;
+        }
+
+        // Counting sort of the edges by follower into CSR rows
+        FollowGraph build() {
+            int nodeCount = ids.size();
+            int[] offsets = new int[nodeCount + 1];
+            for (int i = 0; i < edgeCount; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] targets = new int[edgeCount];
+            int[] fill = Arrays.copyOf(offsets, nodeCount);
+            for (int i = 0; i < edgeCount; i++) {
+                targets[fill[sources[i]]++] = destinations[i];
+            }
+            for (int i = 0; i < nodeCount; i++) {
+                Arrays.sort(targets, offsets[i], offsets[i + 1]);
+            }
+            return new FollowGraph(ids, indexOf, offsets, targets);
+        }
+
+        private int index(String userId) {
+            return indexOf.computeIfAbsent(userId, id -> {
+                ids.add(id);
+                return ids.size() - 1;
+            });
+        }
+    }
+
+    void follow(String followerId, String followeeId) {
+        int follower = index(followerId);
+        int followee = index(followeeId);
+        if (removeFromOverlay(removed, follower, followee)) {
+            return;
+        }
+        if (!inBase(follower, followee) && added.computeIfAbsent(follower, k -> new HashSet<>()).add(followee)) {
+            overlaySize++;
+        }
+    }
+
+    void unfollow(String followerId, String followeeId) {
+        Integer follower = indexOf.get(followerId);
+        Integer followee = indexOf.get(followeeId);
+        if (follower == null || followee == null || removeFromOverlay(added, follower, followee)) {
+            return;
+        }
+        if (inBase(follower, followee) && removed.computeIfAbsent(follower, k -> new HashSet<>()).add(followee)) {
+            overlaySize++;
+        }
+    }
+
+    // Users followed by the people the user follows, ranked by how many of them follow each one
+    List<Candidate> suggest(String userId, int limit) {
+        Integer user = indexOf.get(userId);
+        if (user == null) {
+            return List.of();
+        }
+        // -1 marks the user and everyone they already follow; other entries count mutual connections.
+        // Sized to the nodes actually reached, not the whole graph.
+        IntList followees = new IntList();
+        forEachFollowing(user, followees::add);
+        IntCounts counts = new IntCounts(followees.size * 16);
+        IntList touched = new IntList();
+        counts.put(user, -1);
+        for (int i = 0; i < followees.size; i++) {
+            counts.put(followees.values[i], -1);
+        }
+        for (int i = 0; i < followees.size; i++) {
+            forEachFollowing(followees.values[i], candidate -> {
+                int count = counts.get(candidate);
+                if (count >= 0) {
+                    counts.put(candidate, count + 1);
+                    if (count == 0) {
+                        touched.add(candidate);
+                    }
+                }
+            });
+        }
+
+        // Bounded min-heap keeps the best limit candidates
+        PriorityQueue<Candidate> top = new PriorityQueue<>(BEST_FIRST.reversed());
+        for (int i = 0; i < touched.size; i++) {
+            int candidate = touched.values[i];
+            top.offer(new Candidate(ids.get(candidate), counts.get(candidate)));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        List<Candidate> ranked = new ArrayList<>(top);
+        ranked.sort(BEST_FIRST);
+        return ranked;
+    }
+
+    int nodeCount() {
+        return ids.size();
+    }
+
+    long edgeCount() {
+        long removedCount = removed.values().stream().mapToLong(Set::size).sum();
+        long addedCount = added.values().stream().mapToLong(Set::size).sum();
+        return targets.length - removedCount + addedCount;
+    }
+
+    int overlaySize() {
+        return overlaySize;
+    }
+
+    long estimatedBytes() {
+        return 4L * (offsets.length + targets.length) + BYTES_PER_NODE * ids.size() + BYTES_PER_OVERLAY_EDGE * overlaySize;
+    }
+
+    private void forEachFollowing(int node, IntConsumer action) {
+        Set<Integer> removedHere = removed.getOrDefault(node, Set.of());
+        if (node < offsets.length - 1) {
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                if (!removedHere.contains(targets[i])) {
+                    action.accept(targets[i]);
+                }
+            }
+        }
+        Set<Integer> addedHere = added.get(node);
+        if (addedHere != null) {
+            addedHere.forEach(action::accept);
+        }
+    }
+
+    private boolean inBase(int follower, int followee) {
+        return follower < offsets.length - 1
+                && Arrays.binarySearch(targets, offsets[follower], offsets[follower + 1], followee) >= 0;
+    }
+
+    private boolean removeFromOverlay(Map<Integer, Set<Integer>> overlay, int follower, int followee) {
+        Set<Integer> row = overlay.get(follower);
+        if (row == null || !row.remove(followee)) {
+            return false;
+        }
+        if (row.isEmpty()) {
+            overlay.remove(follower);
+        }
+        overlaySize--;
+        return true;
+    }
+
+    private int index(String userId) {
+        return indexOf.computeIfAbsent(userId, id -> {
+            ids.add(id);
+            return ids.size() - 1;
+        });
+    }
+
+    private static final class IntList {
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    // Open-addressing int to int map for node indexes (which are never negative); absent keys read as 0
+    private static final class IntCounts {
+        private static final int FREE = -1;
+
+        private int[] keys;
+        private int[] values;
+        private int size;
+
+        IntCounts(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected) * 2 - 1);
+            keys = new int[capacity];
+            values = new int[capacity];
+            Arrays.fill(keys, FREE);
+        }
+
+        int get(int key) {
+            int slot = slot(keys, key);
+            return keys[slot] == key ? values[slot] : 0;
+        }
+
+        void put(int key, int value) {
+            int slot = slot(keys, key);
+            if (keys[slot] == FREE) {
+                // Kept at most half full so probes stay short
+                if (2 * (size + 1) > keys.length) {
+                    grow();
+                    slot = slot(keys, key);
+                }
+                keys[slot] = key;
+                size++;
+            }
+            values[slot] = value;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            Arrays.fill(keys, FREE);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    int slot = slot(keys, oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        // Slot holding the key, or the free slot where it would go
+        private static int slot(int[] keys, int key) {
+            int mask = keys.length - 1;
+            int hash = key * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != FREE && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Follow;
+import com.cookBook.App.model.User;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+// One-time migration of the follower/following arrays on users to edges in the follows collection.
+// Edges are inserted unordered so ones that already exist (follows made since the upgrade, or a
+// previous partial run) are skipped by the unique index. Unfollows made until the migration has
+// completed are noted, and edges the run created from arrays read before such an unfollow are
+// removed again. Afterwards both counters are recomputed from the edges and a marker is recorded
+// in the migrations collection.
+@Service
+public class FollowMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowMigration.class);
+    private static final String MIGRATIONS = "migrations";
+    private static final String MIGRATION_ID = "follow-edges";
+    private static final String UNFOLLOWS = "follow-migration-unfollows";
+    private static final int BATCH_SIZE = 500;
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    private volatile boolean completed;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        try {
+            if (isCompleted()) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            // The unique index has to exist before inserting, or reruns would duplicate edges
+            IndexOperations indexOps = mongoTemplate.indexOps(Follow.class);
+            IndexResolver.create(mappingContext).resolveIndexFor(Follow.class).forEach(indexOps::ensureIndex);
+
+            MongoCollection<Document> follows = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Follow.class));
+            Date createdAt = new Date();
+            List<Document> batch = new ArrayList<>(BATCH_SIZE);
+            Query userQuery = new Query();
+            userQuery.fields().include("following", "followers");
+            try (Stream<User> users = mongoTemplate.stream(userQuery, User.class)) {
+                for (User user : (Iterable<User>) users::iterator) {
+                    for (String followeeId : nullSafe(user.getFollowing())) {
+                        batch.add(edge(user.getId(), followeeId, createdAt));
+                    }
+                    for (String followerId : nullSafe(user.getFollowers())) {
+                        batch.add(edge(followerId, user.getId(), createdAt));
+                    }
+                    if (batch.size() >= BATCH_SIZE) {
+                        insertIgnoringDuplicates(follows, batch);
+                        batch.clear();
+                    }
+                }
+            }
+            insertIgnoringDuplicates(follows, batch);
+            removeUnfollowedEdges();
+
+            recomputeCounts("followerId", "followingCount");
+            recomputeCounts("followeeId", "followersCount");
+
+            mongoTemplate.getCollection(MIGRATIONS).insertOne(new Document("_id", MIGRATION_ID).append("completedAt", new Date()));
+            completed = true;
+            mongoTemplate.getCollection(UNFOLLOWS).drop();
+            logger.info("Migrated follow graph to edges in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Follow migration failed, it will run again on the next start: {}", e.getMessage(), e);
+        }
+    }
+
+    // Records an unfollow while the migration may still recreate the edge from the arrays it read
+    public void noteUnfollow(String followerId, String followeeId) {
+        if (isCompleted()) {
+            return;
+        }
+        mongoTemplate.getCollection(UNFOLLOWS).insertOne(new Document("followerId", followerId)
+                .append("followeeId", followeeId)
+                .append("at", new Date()));
+    }
+
+    private boolean isCompleted() {
+        if (!completed && mongoTemplate.getCollection(MIGRATIONS).countDocuments(new Document("_id", MIGRATION_ID)) > 0) {
+            completed = true;
+        }
+        return completed;
+    }
+
+    // Deletes edges created before a noted unfollow of the same pair; a follow made after it is kept
+    private void removeUnfollowedEdges() {
+        for (Document unfollow : mongoTemplate.getCollection(UNFOLLOWS).find()) {
+            mongoTemplate.remove(Query.query(Criteria.where("followerId").is(unfollow.getString("followerId"))
+                    .and("followeeId").is(unfollow.getString("followeeId"))
+                    .and("createdAt").lt(unfollow.getDate("at"))), Follow.class);
+        }
+    }
+
+    private void insertIgnoringDuplicates(MongoCollection<Document> follows, List<Document> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            follows.insertMany(batch, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+    }
+
+    // Sets the counter of every user with edges on the given side; users without any keep 0
+    private void recomputeCounts(String side, String counter) {
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.group(side).count().as("count"));
+        List<Document> counts = mongoTemplate.aggregate(aggregation, Follow.class, Document.class).getMappedResults();
+        for (int from = 0; from < counts.size(); from += BATCH_SIZE) {
+            BulkOperations updates = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+            for (Document count : counts.subList(from, Math.min(from + BATCH_SIZE, counts.size()))) {
+                updates.updateOne(Query.query(Criteria.where("id").is(count.getString("_id"))),
+                        new Update().set(counter, ((Number) count.get("count")).longValue()));
+            }
+            updates.execute();
+        }
+    }
+
+    private static Document edge(String followerId, String followeeId, Date createdAt) {
+        return new Document("followerId", followerId).append("followeeId", followeeId).append("createdAt", createdAt);
+    }
+
+    private static List<String> nullSafe(List<String> ids) {
+        return ids != null ? ids : List.of();
+    }
+}
@@ -0,0 +1,209 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Follow;
+import com.cookBook.App.model.FollowSuggestion;
+import com.cookBook.App.model.UserSummary;
+import com.cookBook.App.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+// "Who to follow": people followed by the people a user follows, ranked by mutual connections.
+// The follow graph is loaded from the follows collection on first use into a FollowGraph and kept
+// current by follow/unfollow events. It is rebuilt from Mongo periodically (to pick up follows made
+// on other nodes) and whenever the overlay of events since the last build grows past a threshold.
+// Events that arrive during a rebuild are replayed onto the new graph; replaying is idempotent.
+@Service
+public class FollowSuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowSuggestionService.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final int compactThreshold;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object loadLock = new Object();
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "follow-graph-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile FollowGraph graph; // Written under the write lock; volatile only for the "loaded yet?" checks
+    private List<Consumer<FollowGraph>> eventsDuringRebuild;
+
+    public FollowSuggestionService(@Value("${app.follow-graph.compact-threshold:100000}") int compactThreshold,
+                                   MeterRegistry meterRegistry) {
+        this.compactThreshold = compactThreshold;
+        gauge(meterRegistry, "follow.graph.memory", "Estimated heap used by the follow graph", BaseUnits.BYTES,
+                FollowGraph::estimatedBytes);
+        gauge(meterRegistry, "follow.graph.nodes", "Users in the follow graph", null, FollowGraph::nodeCount);
+        gauge(meterRegistry, "follow.graph.edges", "Follow edges in the follow graph", null, FollowGraph::edgeCount);
+    }
+
+    public List<FollowSuggestion> suggest(String userId, int limit) {
+        ensureLoaded();
+        List<FollowGraph.Candidate> candidates;
+        lock.readLock().lock();
+        try {
+            candidates = graph.suggest(userId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+
+        // Candidates deleted since the graph was built have no summary and are skipped
+        Map<String, UserSummary> summaries = new HashMap<>();
+        userRepository.findSummaries(candidates.stream().map(FollowGraph.Candidate::userId).toList())
+                .forEach(summary -> summaries.put(summary.getId(), summary));
+        List<FollowSuggestion> suggestions = new ArrayList<>();
+        for (FollowGraph.Candidate candidate : candidates) {
+            UserSummary summary = summaries.get(candidate.userId());
+            if (summary != null) {
+                suggestions.add(new FollowSuggestion(summary.getId(), summary.getName(), summary.getPicture(), candidate.mutualCount()));
+            }
+        }
+        return suggestions;
+    }
+
+    public void onFollow(String followerId, String followeeId) {
+        apply(target -> target.follow(followerId, followeeId));
+    }
+
+    public void onUnfollow(String followerId, String followeeId) {
+        apply(target -> target.unfollow(followerId, followeeId));
+    }
+
+    @Scheduled(
+            initialDelayString = "${app.follow-graph.rebuild-interval-ms:1800000}",
+            fixedDelayString = "${app.follow-graph.rebuild-interval-ms:1800000}"
+    )
+    public void rebuild() {
+        if (graph == null) {
+            return; // Nothing has asked for suggestions yet
+        }
+        try {
+            synchronized (loadLock) {
+                load();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to rebuild the follow graph: {}", e.getMessage(), e);
+        } finally {
+            rebuildQueued.set(false);
+        }
+    }
+
+    private void apply(Consumer<FollowGraph> event) {
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            if (eventsDuringRebuild != null) {
+                eventsDuringRebuild.add(event);
+            }
+            if (graph == null) {
+                return; // Loaded from Mongo on first use
+            }
+            event.accept(graph);
+            compact = graph.overlaySize() > compactThreshold;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact && rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+    }
+
+    private void ensureLoaded() {
+        if (graph == null) {
+            synchronized (loadLock) {
+                if (graph == null) {
+                    load();
+                }
+            }
+        }
+    }
+
+    // Callers hold loadLock, so only one load runs at a time
+    private void load() {
+        lock.writeLock().lock();
+        try {
+            eventsDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        FollowGraph loaded;
+        try {
+            long start = System.currentTimeMillis();
+            FollowGraph.Builder builder = FollowGraph.builder();
+            Query query = new Query();
+            query.fields().include("followerId", "followeeId");
+            try (Stream<Follow> edges = mongoTemplate.stream(query, Follow.class)) {
+                edges.forEach(edge -> builder.add(edge.getFollowerId(), edge.getFolloweeId()));
+            }
+            loaded = builder.build();
+            logger.info("Loaded {} follow edges between {} users in {} ms",
+                    loaded.edgeCount(), loaded.nodeCount(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                eventsDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            eventsDuringRebuild.forEach(event -> event.accept(loaded));
+            eventsDuringRebuild = null;
+            graph = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, String unit, ToDoubleFunction<FollowGraph> value) {
+        Gauge.builder(name, this, service -> service.measure(value))
+                .description(description)
+                .baseUnit(unit)
+                .register(registry);
+    }
+
+    private double measure(ToDoubleFunction<FollowGraph> value) {
+        lock.readLock().lock();
+        try {
+            return graph != null ? value.applyAsDouble(graph) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Comment;
+import com.cookBook.App.model.Interaction;
+import com.cookBook.App.model.Like;
+import com.cookBook.App.model.Post;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// Maintains the interactions collection: per (author, interactor) comment and like counts plus a
+// time-decayed score, updated as comments and likes are written. Close friends are then a top-k
+// read of one author's entries on the (author, score) index.
+// Decay is relative to the start of an era: an interaction at time t adds
+// weight * 2^((t - eraStart) / halfLife), so newer interactions count exponentially more. Eras are
+// ERA_HALF_LIVES half-lives long, which bounds the exponent. A pair's score is converted to the
+// current era whenever it is written, and the rebase job converts the rest once an era begins.
+// Deleted comments and removed likes subtract what they added. The one-time backfill only counts
+// comments and likes older than its watermark and live writes only count newer ones, so nothing
+// written while the backfill runs is counted twice.
+@Service
+public class InteractionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionService.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+    // Scores are stored relative to the start of the current era, so they stay below 2^ERA_HALF_LIVES
+    private static final int ERA_HALF_LIVES = 32;
+    private static final String MIGRATIONS = "migrations";
+    private static final String BACKFILL_ID = "interaction-backfill";
+    private static final int BATCH_SIZE = 500;
+    // Anything this much older than the backfill's start is long written and seen by its scan
+    private static final long WATERMARK_MARGIN_MINUTES = 1;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final double commentWeight;
+    private final double likeWeight;
+    private final double halfLifeDays;
+    private final long eraMillis;
+    private volatile long rebasedEra = -1;
+    // Set once the backfill has recorded its watermark; null when there is none (e.g. it ran before watermarks)
+    private volatile LocalDateTime backfillWatermark;
+
+    public InteractionService(@Value("${app.interactions.comment-weight:1.0}") double commentWeight,
+                              @Value("${app.interactions.like-weight:0.5}") double likeWeight,
+                              @Value("${app.interactions.half-life-days:30}") double halfLifeDays) {
+        this.commentWeight = commentWeight;
+        this.likeWeight = likeWeight;
+        this.halfLifeDays = halfLifeDays;
+        this.eraMillis = (long) (halfLifeDays * ERA_HALF_LIVES * 86_400_000L);
+    }
+
+    private record Key(String author, String interactor) {
+    }
+
+    private static class Totals {
+        long comments;
+        long likes;
+        double score;
+        LocalDateTime last;
+
+        void add(boolean comment, double weight, LocalDateTime at) {
+            if (comment) {
+                comments++;
+            } else {
+                likes++;
+            }
+            score += weight;
+            if (last == null || (at != null && at.isAfter(last))) {
+                last = at;
+            }
+        }
+    }
+
+    @Async
+    public void recordComment(Comment comment) {
+        if (comment.getPostId() == null || comment.getUser() == null) {
+            return;
+        }
+        try {
+            Query query = Query.query(Criteria.where("id").is(comment.getPostId()));
+            query.fields().include("userName");
+            Post post = mongoTemplate.findOne(query, Post.class);
+            if (post == null || !countable(post.getUserName(), comment.getUser())) {
+                return;
+            }
+            LocalDateTime at = recordedAt(comment) != null ? recordedAt(comment) : LocalDateTime.now();
+            if (backfilled(at)) {
+                return;
+            }
+            long era = currentEra();
+            Totals totals = new Totals();
+            totals.add(true, decayed(commentWeight, at, era), at);
+            mongoTemplate.upsert(keyQuery(new Key(post.getUserName(), comment.getUser())), increment(totals, era), Interaction.class);
+        } catch (Exception e) {
+            logger.error("Failed to record comment interaction on post {}: {}", comment.getPostId(), e.getMessage());
+        }
+    }
+
+    // Reverses recordComment (or the backfill) for a deleted comment
+    @Async
+    public void removeComment(Comment comment) {
+        if (comment.getPostId() == null || comment.getUser() == null) {
+            return;
+        }
+        try {
+            String author = authorOf(comment.getPostId());
+            if (countable(author, comment.getUser())) {
+                subtract(new Key(author, comment.getUser()), true, recordedAt(comment));
+            }
+        } catch (Exception e) {
+            logger.error("Failed to remove comment interaction on post {}: {}", comment.getPostId(), e.getMessage());
+        }
+    }
+
+    // Reverses recordLikes (or the backfill) for a like that was removed
+    @Async
+    public void removeLike(Like like) {
+        if (like.getPostId() == null || like.getUser() == null) {
+            return;
+        }
+        try {
+            String author = authorOf(like.getPostId());
+            if (countable(author, like.getUser())) {
+                subtract(new Key(author, like.getUser()), false, like.getTimestamp());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to remove like interaction on post {}: {}", like.getPostId(), e.getMessage());
+        }
+    }
+
+    // Called by the like buffer with the likes it just inserted and the author of each liked post
+    public void recordLikes(List<Like> likes, Map<String, String> authorByPostId) {
+        long era = currentEra();
+        Map<Key, Totals> totals = new HashMap<>();
+        for (Like like : likes) {
+            String author = authorByPostId.get(like.getPostId());
+            LocalDateTime at = like.getTimestamp() != null ? like.getTimestamp() : LocalDateTime.now();
+            if (countable(author, like.getUser()) && !backfilled(at)) {
+                totals.computeIfAbsent(new Key(author, like.getUser()), k -> new Totals()).add(false, decayed(likeWeight, at, era), at);
+            }
+        }
+        try {
+            write(totals, era);
+        } catch (Exception e) {
+            logger.error("Failed to record {} like interactions: {}", likes.size(), e.getMessage());
+        }
+    }
+
+    // Highest-scoring interactors with the author's posts, best first
+    public List<Interaction> topInteractors(String author, int limit) {
+        Query query = Query.query(Criteria.where("author").is(author))
+                .with(Sort.by(Sort.Order.desc("score")))
+                .limit(limit);
+        return mongoTemplate.find(query, Interaction.class);
+    }
+
+    // One-time build of the collection from the existing comments and likes older than the watermark
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            // The watermark is recorded before the scan and kept across restarts of an unfinished backfill
+            Document marker = mongoTemplate.getCollection(MIGRATIONS).findOneAndUpdate(
+                    new Document("_id", BACKFILL_ID),
+                    new Document("$setOnInsert", new Document("watermark",
+                            Date.from(LocalDateTime.now().minusMinutes(WATERMARK_MARGIN_MINUTES).atZone(ZoneId.systemDefault()).toInstant()))),
+                    new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.AFTER));
+            Date watermarkDate = marker.getDate("watermark");
+            LocalDateTime watermark = watermarkDate != null
+                    ? LocalDateTime.ofInstant(watermarkDate.toInstant(), ZoneId.systemDefault()) : null;
+            backfillWatermark = watermark;
+            if (marker.containsKey("completedAt") || watermark == null) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            long era = currentEra();
+            Map<String, String> authorByPostId = new HashMap<>();
+            Query postQuery = new Query();
+            postQuery.fields().include("userName");
+            try (Stream<Post> posts = mongoTemplate.stream(postQuery, Post.class)) {
+                posts.filter(post -> post.getUserName() != null)
+                        .forEach(post -> authorByPostId.put(post.getId(), post.getUserName()));
+            }
+
+            Map<Key, Totals> totals = new HashMap<>();
+            Query commentQuery = new Query();
+            commentQuery.addCriteria(new Criteria().orOperator(
+                    Criteria.where("createdAt").lt(watermark),
+                    Criteria.where("createdAt").exists(false).orOperator(
+                            Criteria.where("timestamp").lt(watermark), Criteria.where("timestamp").is(null))));
+            commentQuery.fields().include("postId", "user", "timestamp", "createdAt");
+            try (Stream<Comment> comments = mongoTemplate.stream(commentQuery, Comment.class)) {
+                comments.forEach(comment -> accumulate(totals, authorByPostId.get(comment.getPostId()),
+                        comment.getUser(), true, recordedAt(comment), era));
+            }
+            Query likeQuery = new Query();
+            likeQuery.addCriteria(new Criteria().orOperator(
+                    Criteria.where("timestamp").lt(watermark), Criteria.where("timestamp").is(null)));
+            likeQuery.fields().include("postId", "user", "timestamp");
+            try (Stream<Like> likes = mongoTemplate.stream(likeQuery, Like.class)) {
+                likes.forEach(like -> accumulate(totals, authorByPostId.get(like.getPostId()),
+                        like.getUser(), false, like.getTimestamp(), era));
+            }
+
+            write(totals, era);
+            mongoTemplate.getCollection(MIGRATIONS).updateOne(new Document("_id", BACKFILL_ID),
+                    new Document("$set", new Document("completedAt", new Date())));
+            logger.info("Backfilled {} interaction pairs in {} ms", totals.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            logger.error("Interaction backfill failed, it will run again on the next start: {}", e.getMessage(), e);
+        }
+    }
+
+    // Comments and likes older than the watermark are counted by the backfill, not by live writes
+    private boolean backfilled(LocalDateTime at) {
+        LocalDateTime watermark = backfillWatermark;
+        return watermark != null && at.isBefore(watermark);
+    }
+
+    private String authorOf(String postId) {
+        Query query = Query.query(Criteria.where("id").is(postId));
+        query.fields().include("userName");
+        Post post = mongoTemplate.findOne(query, Post.class);
+        return post != null ? post.getUserName() : null;
+    }
+
+    // Takes one comment or like back out of the pair, and drops the pair once nothing is left
+    private void subtract(Key key, boolean comment, LocalDateTime at) {
+        long era = currentEra();
+        Totals removal = new Totals();
+        if (comment) {
+            removal.comments = -1;
+        } else {
+            removal.likes = -1;
+        }
+        removal.score = -decayed(comment ? commentWeight : likeWeight, at != null ? at : EPOCH, era);
+        mongoTemplate.updateFirst(keyQuery(key), increment(removal, era), Interaction.class);
+        mongoTemplate.remove(keyQuery(key).addCriteria(Criteria.where("comments").lte(0).and("likes").lte(0)),
+                Interaction.class);
+    }
+
+    private void accumulate(Map<Key, Totals> totals, String author, String interactor, boolean comment, LocalDateTime at, long era) {
+        if (countable(author, interactor)) {
+            LocalDateTime when = at != null ? at : EPOCH;
+            totals.computeIfAbsent(new Key(author, interactor), k -> new Totals())
+                    .add(comment, decayed(comment ? commentWeight : likeWeight, when, era), when);
+        }
+    }
+
+    private void write(Map<Key, Totals> totals, long era) {
+        BulkOperations bulk = null;
+        int pending = 0;
+        for (Map.Entry<Key, Totals> entry : totals.entrySet()) {
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Interaction.class);
+            }
+            bulk.upsert(keyQuery(entry.getKey()), increment(entry.getValue(), era));
+            if (++pending >= BATCH_SIZE) {
+                bulk.execute();
+                bulk = null;
+                pending = 0;
+            }
+        }
+        if (bulk != null) {
+            bulk.execute();
+        }
+    }
+
+    // Writes rescale the pairs they touch; this moves every other pair into the current era once it
+    // starts. Until it has run, pairs not touched since the change still rank with their old-era score.
+    @Scheduled(
+            initialDelayString = "${app.interactions.rebase-initial-delay-ms:60000}",
+            fixedDelayString = "${app.interactions.rebase-interval-ms:600000}"
+    )
+    public void rebase() {
+        long era = currentEra();
+        if (era == rebasedEra) {
+            return;
+        }
+        try {
+            Query stale = Query.query(new Criteria().orOperator(Criteria.where("era").lt(era), Criteria.where("era").exists(false)));
+            long rescaled = mongoTemplate.updateMulti(stale, increment(new Totals(), era), Interaction.class).getModifiedCount();
+            rebasedEra = era;
+            if (rescaled > 0) {
+                logger.info("Rebased {} interaction scores to era {}", rescaled, era);
+            }
+        } catch (Exception e) {
+            logger.error("Interaction score rebase failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private static Query keyQuery(Key key) {
+        return Query.query(Criteria.where("author").is(key.author()).and("interactor").is(key.interactor()));
+    }
+
+    // Adds the totals to the pair, first converting a score stored in an earlier era to the given one
+    private static AggregationUpdate increment(Totals totals, long era) {
+        Document rescale = new Document("$pow", List.of(2, new Document("$multiply", List.of(
+                new Document("$subtract", List.of(new Document("$ifNull", List.of("$era", 0L)), era)), ERA_HALF_LIVES))));
+        Document set = new Document("score", new Document("$add", List.of(
+                        new Document("$multiply", List.of(new Document("$ifNull", List.of("$score", 0.0)), rescale)), totals.score)))
+                .append("era", era)
+                .append("comments", new Document("$add", List.of(new Document("$ifNull", List.of("$comments", 0L)), totals.comments)))
+                .append("likes", new Document("$add", List.of(new Document("$ifNull", List.of("$likes", 0L)), totals.likes)));
+        if (totals.last != null) {
+            Date last = Date.from(totals.last.atZone(ZoneId.systemDefault()).toInstant());
+            set.append("lastInteractionAt", new Document("$max", List.of("$lastInteractionAt", last)));
+        }
+        AggregationOperation stage = context -> new Document("$set", set);
+        return AggregationUpdate.from(List.of(stage));
+    }
+
+    // weight * 2^(t - start of the era) / halfLife. Times after now (clock skew) count as now, so
+    // the exponent never exceeds one era's worth of half-lives.
+    private double decayed(double weight, LocalDateTime at, long era) {
+        long atMillis = Math.min(toMillis(at), System.currentTimeMillis());
+        double days = (atMillis - (toMillis(EPOCH) + era * eraMillis)) / 86_400_000.0;
+        return weight * Math.pow(2, days / halfLifeDays);
+    }
+
+    private long currentEra() {
+        return Math.max(0, Math.floorDiv(System.currentTimeMillis() - toMillis(EPOCH), eraMillis));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // The time a comment was counted at: edits move its timestamp but not createdAt, and comments
+    // from before createdAt existed are only edited after it is filled in with their old timestamp
+    private static LocalDateTime recordedAt(Comment comment) {
+        return comment.getCreatedAt() != null ? comment.getCreatedAt() : comment.getTimestamp();
+    }
+
+    // People interacting with their own posts are not close friends of themselves
+    private static boolean countable(String author, String interactor) {
+        return author != null && interactor != null && !Objects.equals(author, interactor);
+    }
+}
@@ -0,0 +1,376 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Like;
+import com.cookBook.App.model.NotificationMessage;
+import com.cookBook.App.model.Post;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write-behind buffer for likes. Requests only record the (postId, userId) pair in memory;
+// pairs are deduplicated there and flushed on a short interval (or when the buffer fills)
+// as one unordered bulk upsert keyed on the unique (postId, userId) index, followed by one
+// bulk $inc of the affected posts' counters.
+// Likes stay counted in pendingCount until their $inc is applied, so likeCount + pendingCount
+// never misses a like. Inserted likes whose counter update failed are kept and only their
+// counters (and notifications) are retried on the next flush; the upsert is not repeated.
+// Each like is upserted with an _id chosen by the buffer. If a bulk upsert fails part-way, the
+// likes go back to the buffer with the same ids, and on the retry a like that is already stored
+// under its own id counts as inserted by the failed attempt, so its $inc isn't lost.
+// Whatever is buffered is flushed when the application shuts down.
+@Service
+public class LikeIngestionBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeIngestionBuffer.class);
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private InteractionService interactionService;
+
+    private final int flushThreshold;
+    private final Map<String, Like> pending = new ConcurrentHashMap<>();
+    // Likes taken out of pending by the flush that is writing them
+    private final Map<String, Like> inFlight = new ConcurrentHashMap<>();
+    // Per post: likes in pending, in flight or inserted without their $inc yet
+    private final Map<String, AtomicLong> uncounted = new ConcurrentHashMap<>();
+    // Ids of likes whose upsert was sent by a flush that failed, keyed like pending
+    private final Map<String, String> unconfirmed = new ConcurrentHashMap<>();
+    // Inserted likes whose counter update failed; guarded by this
+    private final List<Inserted> unapplied = new ArrayList<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final ExecutorService thresholdFlusher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "like-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Inserted(Like like, Post post) {
+    }
+
+    public LikeIngestionBuffer(@Value("${app.likes.flush-threshold:1000}") int flushThreshold) {
+        this.flushThreshold = flushThreshold;
+    }
+
+    // Buffers the like; returns false if the same user's like on the post is already buffered
+    public boolean submit(Like like) {
+        boolean added = pending.putIfAbsent(key(like.getPostId(), like.getUserId()), like) == null;
+        if (added) {
+            adjustUncounted(like.getPostId(), 1);
+        }
+        if (pending.size() >= flushThreshold && flushScheduled.compareAndSet(false, true)) {
+            thresholdFlusher.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+        return added;
+    }
+
+    public boolean isPending(String postId, String userId) {
+        String key = key(postId, userId);
+        return pending.containsKey(key) || inFlight.containsKey(key);
+    }
+
+    // Likes on the post that are accepted but not yet included in Post.likeCount
+    public long pendingCount(String postId) {
+        AtomicLong count = uncounted.get(postId);
+        return count != null ? Math.max(0L, count.get()) : 0L;
+    }
+
+    // Drops a buffered like that hasn't been written yet; returns true if there was one.
+    // If a flush is writing it right now, waits for that flush: afterwards the like is either
+    // stored (and the caller removes it like any stored like) or back in the buffer.
+    public boolean cancel(String postId, String userId) {
+        String key = key(postId, userId);
+        if (removePending(key)) {
+            return true;
+        }
+        if (inFlight.containsKey(key)) {
+            synchronized (this) {
+                return removePending(key);
+            }
+        }
+        return false;
+    }
+
+    // Drops every buffered like of the user and returns how many there were. Like cancel(), waits
+    // for a flush that is writing one of them, so afterwards they are either stored or dropped.
+    public int cancelAll(String userId) {
+        int cancelled = removePendingOf(userId);
+        if (inFlight.values().stream().anyMatch(like -> userId.equals(like.getUserId()))) {
+            synchronized (this) {
+                cancelled += removePendingOf(userId);
+            }
+        }
+        return cancelled;
+    }
+
+    private int removePendingOf(String userId) {
+        int removed = 0;
+        for (Map.Entry<String, Like> entry : pending.entrySet()) {
+            if (userId.equals(entry.getValue().getUserId()) && removePending(entry.getKey())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean removePending(String key) {
+        Like removed = pending.remove(key);
+        if (removed == null) {
+            return false;
+        }
+        unconfirmed.remove(key);
+        adjustUncounted(removed.getPostId(), -1);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.likes.flush-interval-ms:200}")
+    public synchronized void flush() {
+        if (!unapplied.isEmpty()) {
+            List<Inserted> retry = new ArrayList<>(unapplied);
+            unapplied.clear();
+            applyCounters(retry);
+        }
+
+        // Entries are moved one at a time so likes submitted during the flush are never lost; a like
+        // is in inFlight before it leaves pending, so cancel() always sees it in one of them
+        Map<String, Like> batch = new HashMap<>();
+        for (String key : pending.keySet()) {
+            Like like = pending.get(key);
+            if (like == null) {
+                continue;
+            }
+            inFlight.put(key, like);
+            if (pending.remove(key, like)) {
+                batch.put(key, like);
+            } else {
+                inFlight.remove(key);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Map<Like, String> ids = new IdentityHashMap<>();
+        batch.forEach((key, like) -> ids.put(like, unconfirmed.getOrDefault(key, new ObjectId().toHexString())));
+        try {
+            List<Inserted> inserted = insert(new ArrayList<>(batch.values()), ids);
+            unconfirmed.keySet().removeAll(batch.keySet());
+            // Likes on missing posts and likes that were already stored will never be counted
+            Set<Like> insertedLikes = Collections.newSetFromMap(new IdentityHashMap<>());
+            inserted.forEach(entry -> insertedLikes.add(entry.like()));
+            for (Like like : batch.values()) {
+                if (!insertedLikes.contains(like)) {
+                    adjustUncounted(like.getPostId(), -1);
+                }
+            }
+            applyCounters(inserted);
+        } catch (Exception e) {
+            logger.error("Failed to flush {} likes, will retry: {}", batch.size(), e.getMessage());
+            batch.forEach((key, like) -> {
+                // Kept even if the like was submitted again meanwhile: the retry upserts that one under this id
+                unconfirmed.put(key, ids.get(like));
+                if (pending.putIfAbsent(key, like) != null) {
+                    adjustUncounted(like.getPostId(), -1); // Submitted again meanwhile and counted there
+                }
+            });
+        } finally {
+            inFlight.clear();
+        }
+    }
+
+    // Upserts the likes under the given ids and returns the ones that were actually inserted, by
+    // this call or by an earlier failed one; the rest were already stored
+    private List<Inserted> insert(List<Like> likes, Map<Like, String> ids) {
+        // One query to drop likes on posts that don't exist and learn the categories
+        List<String> postIds = likes.stream().map(Like::getPostId).distinct().toList();
+        Query postQuery = Query.query(Criteria.where("id").in(postIds));
+        postQuery.fields().include("category", "userId", "userName", "taggedFriends");
+        Map<String, Post> posts = new HashMap<>();
+        for (Post post : mongoTemplate.find(postQuery, Post.class)) {
+            posts.put(post.getId(), post);
+        }
+
+        List<Like> accepted = new ArrayList<>();
+        BulkOperations upserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Like.class);
+        for (Like like : likes) {
+            Post post = posts.get(like.getPostId());
+            if (post == null) {
+                continue;
+            }
+            LocalDateTime timestamp = like.getTimestamp() != null ? like.getTimestamp() : LocalDateTime.now();
+            upserts.upsert(
+                    Query.query(Criteria.where("postId").is(post.getId()).and("userId").is(like.getUserId())),
+                    new Update()
+                            .setOnInsert("_id", new ObjectId(ids.get(like)))
+                            .setOnInsert("user", like.getUser())
+                            .setOnInsert("postCategory", post.getCategory())
+                            .setOnInsert("timestamp", timestamp)
+            );
+            like.setPostCategory(post.getCategory());
+            accepted.add(like);
+        }
+        if (accepted.isEmpty()) {
+            return List.of();
+        }
+
+        BulkWriteResult result;
+        try {
+            result = upserts.execute();
+        } catch (BulkOperationException e) {
+            // Another node inserted the same (postId, userId) first; the unique index rejected ours
+            if (e.getErrors().stream().anyMatch(error -> error.getCode() != DUPLICATE_KEY)) {
+                throw e;
+            }
+            result = e.getResult();
+        }
+        boolean[] wasInserted = new boolean[accepted.size()];
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            wasInserted[upsert.getIndex()] = true;
+        }
+        // A retried like that matched a stored document with its own id was inserted by the failed attempt
+        Map<String, Integer> retried = new HashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            Like like = accepted.get(i);
+            if (!wasInserted[i] && unconfirmed.containsKey(key(like.getPostId(), like.getUserId()))) {
+                retried.put(ids.get(like), i);
+            }
+        }
+        if (!retried.isEmpty()) {
+            Query storedQuery = Query.query(Criteria.where("id").in(retried.keySet()));
+            storedQuery.fields().include("id");
+            for (Like stored : mongoTemplate.find(storedQuery, Like.class)) {
+                wasInserted[retried.get(stored.getId())] = true;
+            }
+        }
+        List<Inserted> inserted = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            Like like = accepted.get(i);
+            if (wasInserted[i]) {
+                inserted.add(new Inserted(like, posts.get(like.getPostId())));
+            }
+        }
+        return inserted;
+    }
+
+    // Adds the inserted likes to their posts' counters, then records interactions and notifies.
+    // Posts whose $inc failed keep their likes in unapplied for the next flush.
+    private void applyCounters(List<Inserted> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        Map<String, Long> increments = new LinkedHashMap<>();
+        for (Inserted entry : inserted) {
+            increments.merge(entry.like().getPostId(), 1L, Long::sum);
+        }
+        List<String> postIds = new ArrayList<>(increments.keySet());
+        BulkOperations counters = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class);
+        for (String postId : postIds) {
+            counters.updateOne(Query.query(Criteria.where("id").is(postId)), new Update().inc("likeCount", increments.get(postId)));
+        }
+        Set<String> failedPostIds = new HashSet<>();
+        try {
+            counters.execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> failedPostIds.add(postIds.get(error.getIndex())));
+        } catch (Exception e) {
+            failedPostIds.addAll(postIds);
+        }
+
+        List<Inserted> applied = new ArrayList<>();
+        for (Inserted entry : inserted) {
+            if (failedPostIds.contains(entry.like().getPostId())) {
+                unapplied.add(entry);
+            } else {
+                applied.add(entry);
+                adjustUncounted(entry.like().getPostId(), -1);
+            }
+        }
+        if (!failedPostIds.isEmpty()) {
+            logger.error("Failed to update like counters of {} posts, will retry", failedPostIds.size());
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+
+        List<Like> likes = new ArrayList<>();
+        Map<String, String> authorByPostId = new HashMap<>();
+        List<NotificationService.PostActivity> activities = new ArrayList<>();
+        for (Inserted entry : applied) {
+            Like like = entry.like();
+            likes.add(like);
+            if (entry.post().getUserName() != null) {
+                authorByPostId.put(like.getPostId(), entry.post().getUserName());
+            }
+            recommendationService.onLike(like.getUserId(), like.getPostId(), like.getPostCategory());
+            activities.add(new NotificationService.PostActivity(entry.post(), like.getUserId(), like.getUser(),
+                    new NotificationMessage("LIKE", like.getUser(), null)));
+        }
+        try {
+            interactionService.recordLikes(likes, authorByPostId);
+            notificationService.publish(activities);
+        } catch (Exception e) {
+            // The likes and counters are stored; only interactions and notifications are lost
+            logger.error("Failed to record {} like interactions and notifications: {}", activities.size(), e.getMessage());
+        }
+    }
+
+    private void adjustUncounted(String postId, long delta) {
+        uncounted.compute(postId, (id, count) -> {
+            long next = (count != null ? count.get() : 0L) + delta;
+            return next > 0 ? new AtomicLong(next) : null;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thresholdFlusher.shutdown();
+        flush();
+        if (!pending.isEmpty() || !unapplied.isEmpty()) {
+            logger.error("{} buffered likes and {} like counter updates could not be written before shutdown",
+                    pending.size(), unapplied.size());
+        }
+    }
+
+    private static String key(String postId, String userId) {
+        return postId + ":" + userId;
+    }
+}
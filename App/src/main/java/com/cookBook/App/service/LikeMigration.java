@@ -0,0 +1,173 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.config.MongoIndexConfig;
+import com.cookBook.App.model.Like;
+import com.mongodb.DBRef;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Online migration of likes stored with the old @DBRef post field to the plain postId field.
+// Runs in batches in the background once MongoIndexConfig has ensured the other indexes; a legacy
+// like that duplicates one already stored under postId is dropped. The Like indexes are built
+// here rather than by MongoIndexConfig: the unique (postId, userId) index needs every like to have
+// a postId and at most one like per (postId, userId), which the old code did not guarantee. So
+// likes without a post are deleted, duplicate pairs are collapsed to their oldest like, and the
+// index build is retried (deduplicating again) if live writes slipped in another duplicate.
+// Like counters touched by the cleanup are repaired by PostCounterReconciler.
+@Service
+public class LikeMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeMigration.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final int MAX_INDEX_ATTEMPTS = 5;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    // Published by MongoIndexConfig on its background thread, after the other indexes are ensured
+    @EventListener(MongoIndexConfig.IndexesEnsuredEvent.class)
+    public void migrate() {
+        try {
+            MongoCollection<Document> likes = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Like.class));
+            long migrated = 0;
+            List<Document> batch;
+            do {
+                batch = likes.find(Filters.and(Filters.exists("post"), Filters.exists("postId", false)))
+                        .projection(Projections.include("post"))
+                        .limit(BATCH_SIZE)
+                        .into(new ArrayList<>());
+                migrated += migrateBatch(likes, batch);
+            } while (batch.size() == BATCH_SIZE);
+
+            if (migrated > 0) {
+                logger.info("Migrated {} likes to postId", migrated);
+            }
+            // Every legacy like has been migrated or dropped; what still has no postId points nowhere
+            long orphans = likes.deleteMany(Filters.and(Filters.eq("postId", null), Filters.exists("post", false))).getDeletedCount();
+            if (orphans > 0) {
+                logger.info("Deleted {} likes without a post", orphans);
+            }
+            ensureIndexes(likes);
+        } catch (Exception e) {
+            logger.error("Like migration failed, it will resume on the next start: {}", e.getMessage(), e);
+        }
+    }
+
+    private void ensureIndexes(MongoCollection<Document> likes) throws InterruptedException {
+        IndexOperations indexOps = mongoTemplate.indexOps(Like.class);
+        for (int attempt = 1; ; attempt++) {
+            long removed = removeDuplicates(likes);
+            if (removed > 0) {
+                logger.info("Deleted {} duplicate likes", removed);
+            }
+            try {
+                IndexResolver.create(mappingContext).resolveIndexFor(Like.class).forEach(indexOps::ensureIndex);
+                return;
+            } catch (DuplicateKeyException e) {
+                // A like written since the scan duplicated a pair; clean up again and retry
+                if (attempt >= MAX_INDEX_ATTEMPTS) {
+                    throw new IllegalStateException("Unique like index still has duplicates after "
+                            + attempt + " attempts", e);
+                }
+                logger.warn("Like index build hit a duplicate (attempt {}), retrying", attempt);
+                Thread.sleep(1000L * attempt);
+            }
+        }
+    }
+
+    // Keeps the oldest like of every (postId, userId) pair and deletes the rest; returns how many were deleted
+    private long removeDuplicates(MongoCollection<Document> likes) {
+        List<Document> pipeline = List.of(
+                new Document("$sort", new Document("_id", 1)),
+                new Document("$group", new Document("_id", new Document("postId", "$postId").append("userId", "$userId"))
+                        .append("ids", new Document("$push", "$_id"))
+                        .append("count", new Document("$sum", 1))),
+                new Document("$match", new Document("count", new Document("$gt", 1)))
+        );
+        long removed = 0;
+        List<Object> extra = new ArrayList<>();
+        for (Document group : likes.aggregate(pipeline).allowDiskUse(true)) {
+            List<?> ids = group.getList("ids", Object.class);
+            extra.addAll(ids.subList(1, ids.size()));
+            if (extra.size() >= BATCH_SIZE) {
+                removed += likes.deleteMany(Filters.in("_id", extra)).getDeletedCount();
+                extra.clear();
+            }
+        }
+        if (!extra.isEmpty()) {
+            removed += likes.deleteMany(Filters.in("_id", extra)).getDeletedCount();
+        }
+        return removed;
+    }
+
+    private int migrateBatch(MongoCollection<Document> likes, List<Document> batch) {
+        List<WriteModel<Document>> updates = new ArrayList<>(batch.size());
+        List<Object> ids = new ArrayList<>(batch.size());
+        for (Document like : batch) {
+            String postId = referencedId(like.get("post"));
+            if (postId == null) {
+                // Nothing to point at; the like can never be shown or counted
+                updates.add(new DeleteOneModel<>(Filters.eq("_id", like.get("_id"))));
+            } else {
+                updates.add(new UpdateOneModel<>(Filters.eq("_id", like.get("_id")),
+                        Updates.combine(Updates.set("postId", postId), Updates.unset("post"))));
+            }
+            ids.add(like.get("_id"));
+        }
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        try {
+            likes.bulkWrite(updates, new BulkWriteOptions().ordered(false));
+            return updates.size();
+        } catch (MongoBulkWriteException e) {
+            // The same user's like is already stored under postId; drop the legacy copy
+            List<WriteModel<Document>> deletes = new ArrayList<>();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                deletes.add(new DeleteOneModel<>(Filters.eq("_id", ids.get(error.getIndex()))));
+            }
+            likes.bulkWrite(deletes, new BulkWriteOptions().ordered(false));
+            return updates.size();
+        }
+    }
+
+    private static String referencedId(Object post) {
+        Object id = post instanceof DBRef reference ? reference.getId()
+                : post instanceof Document document ? document.get("$id")
+                : null;
+        if (id instanceof ObjectId objectId) {
+            return objectId.toHexString();
+        }
+        return id != null ? id.toString() : null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.cookBook.App.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+// Storage for uploaded media blobs, addressed by the URL returned from store()
+public interface MediaStorage {
+
+    // Streams the content into storage and returns its public URL; identical content yields the same URL
+    String store(InputStream content, String originalFilename) throws IOException;
+
+    // Resolves a URL returned by store() (or a legacy upload URL) to a readable file
+    Optional<Path> resolve(String url);
+
+    // Content type of a resolved file, recorded from the name it was first uploaded under
+    String contentType(Path path) throws IOException;
+
+    // Hex SHA-256 of a resolved file's content, suitable as a strong ETag
+    String contentHash(Path path) throws IOException;
+
+    class MediaTooLargeException extends IOException {
+        public MediaTooLargeException(long maxBytes) {
+            super("Upload exceeds the limit of " + maxBytes + " bytes");
+        }
+    }
+}
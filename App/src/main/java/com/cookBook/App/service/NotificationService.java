@@ -0,0 +1,295 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Comment;
+import com.cookBook.App.model.CursorPage;
+import com.cookBook.App.model.NotificationCounter;
+import com.cookBook.App.model.NotificationMessage;
+import com.cookBook.App.model.Post;
+import com.cookBook.App.model.User;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Delivers activity on a post to the people it concerns (the post's owner and tagged friends):
+// stores it in their inbox and pushes it over their private /user/queue/notifications destination.
+// Activity of one type on one post updates a single notification ("Ann and 42 others liked your
+// post") instead of adding one per actor, until none has arrived for the coalescing window. Each user has an unread
+// counter document, so the badge count is a lookup by id.
+@Service
+public class NotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
+
+    public static final String DESTINATION = "/queue/notifications";
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_ACTORS = 3;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final Duration coalesceWindow;
+
+    public NotificationService(@Value("${app.notifications.coalesce-window-minutes:60}") long coalesceWindowMinutes) {
+        this.coalesceWindow = Duration.ofMinutes(coalesceWindowMinutes);
+    }
+
+    private record Delivery(String recipientId, String providerId, String type, String postId) {
+    }
+
+    // Something an actor did on a post; the actor is identified by id and/or name and never notified
+    public record PostActivity(Post post, String actorId, String actorName, NotificationMessage message) {
+    }
+
+    @Async
+    public void onComment(Comment comment) {
+        if (comment.getPostId() == null) {
+            return;
+        }
+        try {
+            Query query = Query.query(Criteria.where("id").is(comment.getPostId()));
+            query.fields().include("userId", "taggedFriends");
+            Post post = mongoTemplate.findOne(query, Post.class);
+            if (post != null) {
+                publish(List.of(new PostActivity(post, null, comment.getUser(),
+                        new NotificationMessage("COMMENT", comment.getUser(), comment.getText()))));
+            }
+        } catch (Exception e) {
+            logger.error("Failed to send comment notification for post {}: {}", comment.getPostId(), e.getMessage());
+        }
+    }
+
+    // Resolves the recipients of all activities with one user query, then sends to each of them.
+    // Posts need userId and taggedFriends loaded; tagged friends may be given by user id or by a
+    // name that belongs to exactly one user.
+    public void publish(List<PostActivity> activities) {
+        Set<String> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (PostActivity activity : activities) {
+            for (String reference : references(activity.post())) {
+                if (ObjectId.isValid(reference)) {
+                    ids.add(reference);
+                } else {
+                    names.add(reference);
+                }
+            }
+        }
+        if (ids.isEmpty() && names.isEmpty()) {
+            return;
+        }
+
+        List<Criteria> matches = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            matches.add(Criteria.where("id").in(ids));
+        }
+        if (!names.isEmpty()) {
+            matches.add(Criteria.where("name").in(names));
+        }
+        Query query = Query.query(new Criteria().orOperator(matches));
+        query.fields().include("providerId", "name");
+        Map<String, User> byId = new HashMap<>();
+        Map<String, User> byName = new HashMap<>();
+        Set<String> ambiguous = new HashSet<>();
+        for (User user : mongoTemplate.find(query, User.class)) {
+            byId.put(user.getId(), user);
+            String name = user.getName();
+            if (name != null && names.contains(name) && byName.putIfAbsent(name, user) != null) {
+                ambiguous.add(name);
+            }
+        }
+        // Names are not unique; a tagged name shared by several users can't tell who was meant,
+        // so nobody is notified for it rather than a stranger
+        for (String name : ambiguous) {
+            byName.remove(name);
+            logger.debug("Tagged name '{}' matches several users, not notifying", name);
+        }
+
+        // Activity of the same kind on the same post for the same recipient becomes one write and one push
+        Map<Delivery, List<PostActivity>> deliveries = new LinkedHashMap<>();
+        for (PostActivity activity : activities) {
+            Set<String> notified = new HashSet<>();
+            for (String reference : references(activity.post())) {
+                User recipient = ObjectId.isValid(reference) ? byId.get(reference) : byName.get(reference);
+                if (recipient == null || recipient.getProviderId() == null
+                        || Objects.equals(recipient.getId(), activity.actorId())
+                        || (activity.actorId() == null && Objects.equals(recipient.getName(), activity.actorName()))
+                        || !notified.add(recipient.getId())) {
+                    continue;
+                }
+                Delivery delivery = new Delivery(recipient.getId(), recipient.getProviderId(),
+                        activity.message().getType(), activity.post().getId());
+                deliveries.computeIfAbsent(delivery, d -> new ArrayList<>()).add(activity);
+            }
+        }
+        deliveries.forEach((delivery, grouped) -> {
+            try {
+                deliver(delivery, grouped);
+            } catch (Exception e) {
+                logger.error("Failed to deliver {} notification to {}: {}", delivery.type(), delivery.recipientId(), e.getMessage());
+            }
+        });
+    }
+
+    // Folds the activities into the recipient's open notification for this type and post, then pushes it
+    private void deliver(Delivery delivery, List<PostActivity> activities) {
+        LocalDateTime now = LocalDateTime.now();
+        String groupKey = openGroupKey(delivery, now);
+        NotificationMessage latest = activities.get(activities.size() - 1).message();
+        List<String> actors = activities.stream().map(PostActivity::actorName).filter(Objects::nonNull).toList();
+        ObjectId newId = new ObjectId();
+
+        Update update = new Update()
+                .setOnInsert("_id", newId)
+                .setOnInsert("type", delivery.type())
+                .setOnInsert("postId", delivery.postId())
+                .setOnInsert("createdAt", now)
+                .set("user", latest.getUser())
+                .set("text", latest.getText())
+                .set("read", false)
+                .set("updatedAt", now)
+                .inc("actorCount", activities.size());
+        if (!actors.isEmpty()) {
+            update.push("actors").slice(-MAX_ACTORS).each(actors.toArray());
+        }
+        NotificationMessage previous = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("recipientId").is(delivery.recipientId()).and("groupKey").is(groupKey)),
+                update,
+                FindAndModifyOptions.options().upsert(true).returnNew(false),
+                NotificationMessage.class
+        );
+        if (previous == null || previous.isRead()) {
+            adjustUnread(delivery.recipientId(), 1);
+        }
+
+        // The stored state after the update, without reading it back
+        NotificationMessage pushed = new NotificationMessage(delivery.type(), latest.getUser(), latest.getText());
+        List<String> allActors = new ArrayList<>(previous != null && previous.getActors() != null ? previous.getActors() : List.of());
+        allActors.addAll(actors);
+        pushed.setId(previous != null ? previous.getId() : newId.toHexString());
+        pushed.setRecipientId(delivery.recipientId());
+        pushed.setPostId(delivery.postId());
+        pushed.setGroupKey(groupKey);
+        pushed.setActors(allActors.subList(Math.max(0, allActors.size() - MAX_ACTORS), allActors.size()));
+        pushed.setActorCount((previous != null ? previous.getActorCount() : 0) + activities.size());
+        pushed.setCreatedAt(previous != null ? previous.getCreatedAt() : now);
+        pushed.setUpdatedAt(now);
+        messagingTemplate.convertAndSendToUser(delivery.providerId(), DESTINATION, pushed);
+    }
+
+    // The recipient's latest notification for the type and post stays open while it keeps being
+    // updated within the window. Otherwise a new one starts, keyed by the one it follows, so
+    // concurrent deliveries starting it agree on the key and the unique index folds them together.
+    private String openGroupKey(Delivery delivery, LocalDateTime now) {
+        Query query = Query.query(Criteria.where("recipientId").is(delivery.recipientId())
+                        .and("postId").is(delivery.postId()).and("type").is(delivery.type()))
+                .with(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")))
+                .limit(1);
+        query.fields().include("groupKey", "updatedAt");
+        NotificationMessage latest = mongoTemplate.findOne(query, NotificationMessage.class);
+        if (latest != null && latest.getUpdatedAt() != null
+                && !latest.getUpdatedAt().isBefore(now.minus(coalesceWindow))) {
+            return latest.getGroupKey();
+        }
+        return delivery.type() + ":" + delivery.postId() + ":" + (latest != null ? latest.getId() : "first");
+    }
+
+    // Newest-first page of the user's inbox; coalesced notifications move up as they are updated
+    public CursorPage<NotificationMessage> getInbox(String userId, String after, int limit) {
+        Criteria criteria = Criteria.where("recipientId").is(userId);
+        if (after != null && !after.isBlank()) {
+            String[] parts = CursorCodec.decode(after, 2);
+            LocalDateTime beforeTimestamp = CursorCodec.decodeTimestamp(parts[0]);
+            criteria = criteria.orOperator(
+                    Criteria.where("updatedAt").lt(beforeTimestamp),
+                    Criteria.where("updatedAt").is(beforeTimestamp).and("id").lt(parts[1])
+            );
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Order.desc("updatedAt"), Sort.Order.desc("id")))
+                .limit(limit + 1);
+        List<NotificationMessage> items = mongoTemplate.find(query, NotificationMessage.class);
+        String nextCursor = null;
+        if (items.size() > limit) {
+            items = items.subList(0, limit);
+            NotificationMessage last = items.get(limit - 1);
+            nextCursor = CursorCodec.encode(CursorCodec.encodeTimestamp(last.getUpdatedAt()), last.getId());
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+
+    public long getUnreadCount(String userId) {
+        NotificationCounter counter = mongoTemplate.findById(userId, NotificationCounter.class);
+        return counter != null ? Math.max(0, counter.getUnread()) : 0;
+    }
+
+    // Returns false if the notification doesn't exist, belongs to someone else or was already read
+    public boolean markRead(String userId, String notificationId) {
+        UpdateResult result = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(notificationId).and("recipientId").is(userId).and("read").is(false)),
+                new Update().set("read", true),
+                NotificationMessage.class
+        );
+        if (result.getModifiedCount() == 0) {
+            return false;
+        }
+        adjustUnread(userId, -1);
+        return true;
+    }
+
+    public void markAllRead(String userId) {
+        UpdateResult result = mongoTemplate.updateMulti(
+                Query.query(Criteria.where("recipientId").is(userId).and("read").is(false)),
+                new Update().set("read", true),
+                NotificationMessage.class
+        );
+        // Decrement rather than reset, so notifications arriving meanwhile stay counted
+        if (result.getModifiedCount() > 0) {
+            adjustUnread(userId, -result.getModifiedCount());
+        }
+    }
+
+    private void adjustUnread(String userId, long delta) {
+        mongoTemplate.upsert(Query.query(Criteria.where("id").is(userId)), new Update().inc("unread", delta), NotificationCounter.class);
+    }
+
+    private static Set<String> references(Post post) {
+        Set<String> references = new LinkedHashSet<>();
+        if (post.getUserId() != null) {
+            references.add(post.getUserId());
+        }
+        if (post.getTaggedFriends() != null) {
+            for (String tagged : post.getTaggedFriends()) {
+                if (tagged != null && !tagged.isBlank()) {
+                    references.add(tagged.trim());
+                }
+            }
+        }
+        return references;
+    }
+}
@@ -0,0 +1,68 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Like;
+import com.cookBook.App.model.Post;
+import com.cookBook.App.model.PostCardState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Everything a feed page needs to render its post cards in two queries: like and comment
+// counts from the posts' denormalized counters and the viewer's likes from the
+// (postId, userId) index.
+@Service
+public class PostCardService {
+
+    public static final int MAX_POSTS = 100;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LikeIngestionBuffer likeIngestionBuffer;
+
+    public PostCardState getCardState(List<String> postIds, String viewerId) {
+        List<String> ids = postIds.stream().distinct().limit(MAX_POSTS).toList();
+
+        Query postQuery = Query.query(Criteria.where("id").in(ids));
+        postQuery.fields().include("likeCount", "commentCount");
+        Map<String, Post> posts = new HashMap<>();
+        for (Post post : mongoTemplate.find(postQuery, Post.class)) {
+            posts.put(post.getId(), post);
+        }
+
+        Set<String> liked = new HashSet<>();
+        if (viewerId != null && !viewerId.isBlank()) {
+            Query likeQuery = Query.query(Criteria.where("postId").in(ids).and("userId").is(viewerId));
+            likeQuery.fields().include("postId");
+            for (Like like : mongoTemplate.find(likeQuery, Like.class)) {
+                liked.add(like.getPostId());
+            }
+        }
+
+        long[] likeCountArray = new long[ids.size()];
+        long[] commentCountArray = new long[ids.size()];
+        BitSet likedBits = new BitSet(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String postId = ids.get(i);
+            Post post = posts.get(postId);
+            likeCountArray[i] = post != null ? post.getLikeCount() + likeIngestionBuffer.pendingCount(postId) : 0L;
+            commentCountArray[i] = post != null ? post.getCommentCount() : 0L;
+            if (liked.contains(postId) || (viewerId != null && likeIngestionBuffer.isPending(postId, viewerId))) {
+                likedBits.set(i);
+            }
+        }
+        return new PostCardState(ids, likeCountArray, commentCountArray,
+                Base64.getEncoder().encodeToString(likedBits.toByteArray()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Post;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.data.util.Pair;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Periodically recomputes the denormalized Post.likeCount and Post.commentCount from the likes
+// and comments collections and repairs any drift (also backfills posts created before a counter existed)
+@Service
+public class PostCounterReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostCounterReconciler.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Scheduled(
+            initialDelayString = "${app.posts.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${app.posts.reconcile-interval-ms:3600000}"
+    )
+    public void reconcile() {
+        reconcile("likeCount", "likes");
+        reconcile("commentCount", "comments");
+    }
+
+    private void reconcile(String counterField, String sourceCollection) {
+        try {
+            // Only a pre-filter: the counts are stale by the time each post is read
+            Map<String, Long> actualCounts = countPerPost(sourceCollection);
+
+            Query query = new Query();
+            query.fields().include(counterField);
+            List<String> suspects = new ArrayList<>();
+            int repaired = 0;
+            try (Stream<Document> posts = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(Post.class))) {
+                for (Document post : (Iterable<Document>) posts::iterator) {
+                    String postId = idOf(post);
+                    Object stored = post.get(counterField);
+                    if (!(stored instanceof Number number) || number.longValue() != actualCounts.getOrDefault(postId, 0L)) {
+                        suspects.add(postId);
+                    }
+                    if (suspects.size() >= BATCH_SIZE) {
+                        repaired += repair(suspects, counterField, sourceCollection);
+                    }
+                }
+            }
+            repaired += repair(suspects, counterField, sourceCollection);
+            if (repaired > 0) {
+                logger.info("Reconciled {} on {} posts", counterField, repaired);
+            }
+        } catch (Exception e) {
+            logger.error("Reconciliation of {} failed: {}", counterField, e.getMessage(), e);
+        }
+    }
+
+    // Re-reads each counter, then counts its source, and moves the counter by the difference only
+    // if it still holds the value read. An $inc landing after the read makes the update miss, so it
+    // is never overwritten; the post is picked up again by the next run.
+    private int repair(List<String> postIds, String counterField, String sourceCollection) {
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        Query query = Query.query(Criteria.where("id").in(postIds));
+        query.fields().include(counterField);
+        List<Pair<Query, UpdateDefinition>> repairs = new ArrayList<>();
+        for (Document post : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Post.class))) {
+            String postId = idOf(post);
+            Object stored = post.get(counterField);
+            long current = stored instanceof Number number ? number.longValue() : 0L;
+            long actual = mongoTemplate.getCollection(sourceCollection).countDocuments(new Document("postId", postId));
+            if (!(stored instanceof Number) || current != actual) {
+                repairs.add(Pair.of(
+                        Query.query(Criteria.where("id").is(postId).and(counterField).is(stored)),
+                        new Update().inc(counterField, actual - current)
+                ));
+            }
+        }
+        postIds.clear();
+        if (repairs.isEmpty()) {
+            return 0;
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class).updateOne(repairs).execute()
+                .getModifiedCount();
+    }
+
+    private static String idOf(Document post) {
+        Object id = post.get("_id");
+        return id instanceof ObjectId objectId ? objectId.toHexString() : id.toString();
+    }
+
+    private Map<String, Long> countPerPost(String sourceCollection) {
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("postId", new Document("$ne", null))),
+                new Document("$group", new Document("_id", "$postId").append("count", new Document("$sum", 1)))
+        );
+        Map<String, Long> counts = new HashMap<>();
+        for (Document row : mongoTemplate.getCollection(sourceCollection).aggregate(pipeline).allowDiskUse(true)) {
+            counts.put(row.get("_id").toString(), ((Number) row.get("count")).longValue());
+        }
+        return counts;
+    }
+}
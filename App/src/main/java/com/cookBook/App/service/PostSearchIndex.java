@@ -0,0 +1,291 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.CursorPage;
+import com.cookBook.App.model.Post;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-process inverted index over post topic, description, category and location.
+// Ranked with BM25; the last query term also matches as a prefix so search-as-you-type works.
+// Kept current by PostService on create/update/delete and loaded from Mongo on first search.
+// A query scores at most MAX_POSTINGS_PER_TERM postings of each term: for a common term, the ones
+// with the highest BM25 impact (listed when first needed) plus the posts indexed since then.
+// The impact list is rebuilt once that overflow grows past a quarter of its size.
+@Service
+public class PostSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TOPIC_BOOST = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_POSTINGS_PER_TERM = 2_000;
+
+    private static final Comparator<Hit> BEST_FIRST = Comparator
+            .comparingDouble(Hit::score).reversed()
+            .thenComparing(Hit::postId);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // term -> (postId -> term frequency); sorted so prefixes are a contiguous range
+    private final TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    // postId -> term frequencies of that post, needed to unindex it
+    private final Map<String, Map<String, Integer>> documents = new HashMap<>();
+    private final Map<String, Integer> documentLengths = new HashMap<>();
+    private long totalLength;
+    private volatile boolean loaded;
+    // term -> its highest-impact postings, for terms with more than MAX_POSTINGS_PER_TERM postings.
+    // Built by searches under the read lock; invalidated and extended under the write lock.
+    private final Map<String, ImpactList> impacts = new ConcurrentHashMap<>();
+
+    private record Hit(String postId, double score) {
+    }
+
+    private record ImpactList(Set<String> top, Set<String> added) {
+    }
+
+    public CursorPage<String> search(String queryText, String after, int limit) {
+        ensureLoaded();
+        List<String> terms = tokenize(queryText);
+        if (terms.isEmpty()) {
+            return new CursorPage<>(List.of(), null);
+        }
+
+        Hit position = null;
+        if (after != null && !after.isBlank()) {
+            String[] parts = CursorCodec.decode(after, 2);
+            try {
+                position = new Hit(parts[1], Double.parseDouble(parts[0]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<String, Double> scores = new HashMap<>();
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                boolean last = i == terms.size() - 1;
+                if (last && term.length() >= MIN_PREFIX_LENGTH) {
+                    int expansions = 0;
+                    for (Map.Entry<String, Map<String, Integer>> entry : postings.tailMap(term, true).entrySet()) {
+                        if (!entry.getKey().startsWith(term) || expansions++ >= MAX_PREFIX_EXPANSIONS) {
+                            break;
+                        }
+                        accumulate(scores, entry.getKey(), entry.getValue());
+                    }
+                } else {
+                    Map<String, Integer> termPostings = postings.get(term);
+                    if (termPostings != null) {
+                        accumulate(scores, term, termPostings);
+                    }
+                }
+            }
+
+            // Keep the best limit + 1 hits after the cursor position in a bounded min-heap
+            PriorityQueue<Hit> top = new PriorityQueue<>(BEST_FIRST.reversed());
+            for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                Hit hit = new Hit(entry.getKey(), entry.getValue());
+                if (position != null && BEST_FIRST.compare(hit, position) <= 0) {
+                    continue;
+                }
+                top.offer(hit);
+                if (top.size() > limit + 1) {
+                    top.poll();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(BEST_FIRST);
+            String nextCursor = null;
+            if (hits.size() > limit) {
+                hits = hits.subList(0, limit);
+                Hit lastHit = hits.get(limit - 1);
+                nextCursor = CursorCodec.encode(Double.toString(lastHit.score()), lastHit.postId());
+            }
+            return new CursorPage<>(hits.stream().map(Hit::postId).toList(), nextCursor);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Indexing is idempotent, so updates racing with the initial load are safe
+    public void index(Post post) {
+        if (post.getId() == null) {
+            return;
+        }
+        Map<String, Integer> frequencies = termFrequencies(post);
+        lock.writeLock().lock();
+        try {
+            indexLocked(post.getId(), frequencies);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String postId) {
+        lock.writeLock().lock();
+        try {
+            unindexLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexLocked(String postId, Map<String, Integer> frequencies) {
+        unindexLocked(postId);
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(postId, entry.getValue());
+            length += entry.getValue();
+            ImpactList impact = impacts.get(entry.getKey());
+            if (impact != null) {
+                impact.added().add(postId);
+                if (impact.added().size() > MAX_POSTINGS_PER_TERM / 4) {
+                    impacts.remove(entry.getKey());
+                }
+            }
+        }
+        documents.put(postId, frequencies);
+        documentLengths.put(postId, length);
+        totalLength += length;
+    }
+
+    private void unindexLocked(String postId) {
+        Map<String, Integer> previous = documents.remove(postId);
+        if (previous == null) {
+            return;
+        }
+        totalLength -= documentLengths.remove(postId);
+        for (Map.Entry<String, Integer> entry : previous.entrySet()) {
+            Map<String, Integer> termPostings = postings.get(entry.getKey());
+            if (termPostings != null) {
+                termPostings.remove(postId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(entry.getKey());
+                    impacts.remove(entry.getKey());
+                }
+            }
+        }
+    }
+
+    // Called with the read lock held
+    private void accumulate(Map<String, Double> scores, String term, Map<String, Integer> termPostings) {
+        int documentCount = documents.size();
+        double averageLength = documentCount > 0 ? (double) totalLength / documentCount : 1.0;
+        double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+        if (termPostings.size() <= MAX_POSTINGS_PER_TERM) {
+            termPostings.forEach((postId, tf) -> scores.merge(postId, score(idf, tf, postId, averageLength), Double::sum));
+            return;
+        }
+        ImpactList impact = impacts.get(term);
+        if (impact == null) {
+            ImpactList built = new ImpactList(topByImpact(termPostings, averageLength), new HashSet<>());
+            impact = Objects.requireNonNullElse(impacts.putIfAbsent(term, built), built);
+        }
+        for (String postId : impact.top()) {
+            Integer tf = termPostings.get(postId);
+            if (tf != null) {
+                scores.merge(postId, score(idf, tf, postId, averageLength), Double::sum);
+            }
+        }
+        for (String postId : impact.added()) {
+            Integer tf = termPostings.get(postId);
+            if (tf != null && !impact.top().contains(postId)) {
+                scores.merge(postId, score(idf, tf, postId, averageLength), Double::sum);
+            }
+        }
+    }
+
+    // The MAX_POSTINGS_PER_TERM postings with the highest score; idf is the same for all of them
+    private Set<String> topByImpact(Map<String, Integer> termPostings, double averageLength) {
+        PriorityQueue<Hit> top = new PriorityQueue<>(BEST_FIRST.reversed());
+        termPostings.forEach((postId, tf) -> {
+            top.offer(new Hit(postId, score(1.0, tf, postId, averageLength)));
+            if (top.size() > MAX_POSTINGS_PER_TERM) {
+                top.poll();
+            }
+        });
+        Set<String> postIds = new HashSet<>();
+        top.forEach(hit -> postIds.add(hit.postId()));
+        return postIds;
+    }
+
+    private double score(double idf, double tf, String postId, double averageLength) {
+        int length = documentLengths.getOrDefault(postId, 0);
+        return idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            long start = System.currentTimeMillis();
+            Query query = new Query();
+            query.fields().include("topic", "description", "category", "location");
+            lock.writeLock().lock();
+            try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+                posts.forEach(post -> indexLocked(post.getId(), termFrequencies(post)));
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Indexed {} posts for search in {} ms", documents.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(Post post) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : tokenize(post.getTopic())) {
+            frequencies.merge(term, TOPIC_BOOST, Integer::sum);
+        }
+        for (String field : new String[]{post.getDescription(), post.getCategory(), post.getLocation()}) {
+            for (String term : tokenize(field)) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+        }
+        return frequencies;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+}
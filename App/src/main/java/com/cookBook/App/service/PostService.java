@@ -1,5 +1,6 @@
 package com.cookBook.App.service;
 
+import com.cookBook.App.model.CursorPage;
 import com.cookBook.App.model.Post;
 import com.cookBook.App.model.User;
 import com.cookBook.App.repository.PostRepository;
@@ -7,114 +8,194 @@ import com.cookBook.App.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class PostService {
 
     private static final Logger logger = LoggerFactory.getLogger(PostService.class);
+    private static final int MAX_FEED_PAGE_SIZE = 100;
 
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private AuthorNameCache authorNameCache;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private RenditionService renditionService;
+
     @Transactional
     public Post createPost(Post post) {
         if (post.getCategory() == null || post.getCategory().trim().isEmpty()) {
             post.setCategory("general"); // Default category
         }
         post.setTimestamp(LocalDateTime.now());
+        post.setLikeCount(0);
+        post.setCommentCount(0);
+        renditionService.attachRenditions(post);
         Post savedPost = postRepository.save(post);
+        recommendationService.onPostSaved(savedPost);
+        timelineService.onPostCreated(savedPost);
+        postSearchIndex.index(savedPost);
         logger.info("Created post with ID: {}", savedPost.getId());
         return savedPost;
     }
 
     public List<Post> getAllPosts() {
-        List<Post> posts = postRepository.findAll();
-        return posts.stream().map(post -> {
-            try {
-                if (post.getUserId() == null) {
-                    logger.warn("Post {} has null userId", post.getId());
-                    post.setUserName("Anonymous");
-                    return post;
-                }
-                Optional<User> user = userRepository.findById(post.getUserId());
-                post.setUserName(user.map(User::getName).orElse("Anonymous"));
-                return post;
-            } catch (Exception e) {
-                logger.error("Error processing post {}: {}", post.getId(), e.getMessage(), e);
-                post.setUserName("Anonymous");
-                return post;
-            }
-        }).toList();
+        return hydrateAuthors(postRepository.findAll());
     }
 
     public List<Post> getPostsByCategory(String category) {
-        List<Post> posts = postRepository.findByCategory(category);
-        return posts.stream().map(post -> {
-            try {
-                if (post.getUserId() == null) {
-                    logger.warn("Post {} has null userId", post.getId());
-                    post.setUserName("Anonymous");
-                    return post;
-                }
-                Optional<User> user = userRepository.findById(post.getUserId());
-                post.setUserName(user.map(User::getName).orElse("Anonymous"));
-                return post;
-            } catch (Exception e) {
-                logger.error("Error processing post {}: {}", post.getId(), e.getMessage(), e);
-                post.setUserName("Anonymous");
-                return post;
-            }
-        }).toList();
+        return hydrateAuthors(postRepository.findByCategory(category));
+    }
+
+    // Keyset-paginated feed, newest first; after is the nextCursor of the previous page
+    public CursorPage<Post> getFeedPage(String category, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        LocalDateTime beforeTimestamp = null;
+        String beforeId = null;
+        if (after != null && !after.isBlank()) {
+            String[] position = CursorCodec.decode(after, 2);
+            beforeTimestamp = position[0].isEmpty() ? null : CursorCodec.decodeTimestamp(position[0]);
+            beforeId = position[1];
+        }
+
+        List<Post> posts = postRepository.findFeedPage(category, beforeTimestamp, beforeId, pageSize + 1);
+        String nextCursor = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            Post last = posts.get(pageSize - 1);
+            // Legacy posts without a timestamp sort after every dated post; their cursor leaves the timestamp empty
+            String timestamp = last.getTimestamp() != null ? CursorCodec.encodeTimestamp(last.getTimestamp()) : "";
+            nextCursor = CursorCodec.encode(timestamp, last.getId());
+        }
+        return new CursorPage<>(hydrateAuthors(posts), nextCursor);
+    }
+
+    // Loads posts in one query and returns them in the order of the given ids
+    public List<Post> getPostsByIds(List<String> ids) {
+        Map<String, Post> byId = new HashMap<>();
+        postRepository.findAllById(ids).forEach(post -> byId.put(post.getId(), post));
+        List<Post> ordered = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return hydrateAuthors(ordered);
+    }
+
+    // Full-text search over topic, description, category and location, best match first
+    public CursorPage<Post> searchPosts(String query, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FEED_PAGE_SIZE));
+        CursorPage<String> page = postSearchIndex.search(query, after, pageSize);
+        return new CursorPage<>(getPostsByIds(page.getItems()), page.getNextCursor());
     }
 
     public Optional<Post> getPostById(String id) {
         Optional<Post> post = postRepository.findById(id);
-        post.ifPresent(p -> {
+        post.ifPresent(p -> hydrateAuthors(List.of(p)));
+        return post;
+    }
+
+    // Fills Post.userName for a page of posts with one user lookup for all authors missing from the cache
+    private List<Post> hydrateAuthors(List<Post> posts) {
+        Set<String> userIds = new HashSet<>();
+        for (Post post : posts) {
+            if (post.getUserId() == null) {
+                logger.warn("Post {} has null userId", post.getId());
+            } else {
+                userIds.add(post.getUserId());
+            }
+        }
+
+        Map<String, String> names = new HashMap<>(authorNameCache.getAll(userIds));
+        List<String> missing = userIds.stream().filter(userId -> !names.containsKey(userId)).toList();
+        if (!missing.isEmpty()) {
             try {
-                if (p.getUserId() == null) {
-                    logger.warn("Post {} has null userId", p.getId());
-                    p.setUserName("Anonymous");
-                    return;
+                Map<String, String> resolved = new HashMap<>();
+                for (User user : userRepository.findByIdIn(missing)) {
+                    if (user.getName() != null) {
+                        resolved.put(user.getId(), user.getName());
+                    }
                 }
-                Optional<User> user = userRepository.findById(p.getUserId());
-                p.setUserName(user.map(User::getName).orElse("Anonymous"));
+                authorNameCache.putAll(resolved);
+                names.putAll(resolved);
             } catch (Exception e) {
-                logger.error("Error processing post {}: {}", p.getId(), e.getMessage(), e);
-                p.setUserName("Anonymous");
+                logger.error("Error resolving authors for {} posts: {}", posts.size(), e.getMessage(), e);
             }
-        });
-        return post;
+        }
+
+        for (Post post : posts) {
+            String name = post.getUserId() != null ? names.get(post.getUserId()) : null;
+            post.setUserName(name != null ? name : "Anonymous");
+        }
+        return posts;
     }
 
+    // Only the edited fields are $set, so counters and renditions updated concurrently with $inc/$push are kept
     @Transactional
     public Post updatePost(String id, Post updatedPost) {
-        return postRepository.findById(id).map(post -> {
-            if (updatedPost.getTopic() != null) post.setTopic(updatedPost.getTopic());
-            if (updatedPost.getDescription() != null) post.setDescription(updatedPost.getDescription());
-            if (updatedPost.getCategory() != null) post.setCategory(updatedPost.getCategory());
-            if (updatedPost.getMediaUrls() != null) post.setMediaUrls(updatedPost.getMediaUrls());
-            if (updatedPost.getMediaTypes() != null) post.setMediaTypes(updatedPost.getMediaTypes());
-            post.setPrivate(updatedPost.isPrivate());
-            if (updatedPost.getTaggedFriends() != null) post.setTaggedFriends(updatedPost.getTaggedFriends());
-            if (updatedPost.getLocation() != null) post.setLocation(updatedPost.getLocation());
-            return postRepository.save(post);
-        }).orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
+        Update update = new Update().set("isPrivate", updatedPost.isPrivate());
+        if (updatedPost.getTopic() != null) update.set("topic", updatedPost.getTopic());
+        if (updatedPost.getDescription() != null) update.set("description", updatedPost.getDescription());
+        if (updatedPost.getCategory() != null) update.set("category", updatedPost.getCategory());
+        if (updatedPost.getMediaUrls() != null) {
+            update.set("mediaUrls", updatedPost.getMediaUrls());
+            renditionService.attachRenditions(updatedPost);
+            update.set("renditions", updatedPost.getRenditions() != null ? updatedPost.getRenditions() : List.of());
+        }
+        if (updatedPost.getMediaTypes() != null) update.set("mediaTypes", updatedPost.getMediaTypes());
+        if (updatedPost.getTaggedFriends() != null) update.set("taggedFriends", updatedPost.getTaggedFriends());
+        if (updatedPost.getLocation() != null) update.set("location", updatedPost.getLocation());
+
+        Post savedPost = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("id").is(id)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Post.class
+        );
+        if (savedPost == null) {
+            throw new RuntimeException("Post not found with id: " + id);
+        }
+        recommendationService.onPostSaved(savedPost);
+        postSearchIndex.index(savedPost);
+        return savedPost;
     }
 
     @Transactional
     public void deletePost(String id) {
-        if (!postRepository.existsById(id)) {
-            throw new RuntimeException("Post not found with id: " + id);
-        }
+        Post post = postRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Post not found with id: " + id));
         postRepository.deleteById(id);
+        recommendationService.onPostDeleted(id);
+        timelineService.onPostDeleted(post);
+        postSearchIndex.remove(id);
     }
 }
\ No newline at end of file
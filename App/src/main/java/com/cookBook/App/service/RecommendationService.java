@@ -0,0 +1,281 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Post;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Ranks posts for a user from in-memory structures kept current by like and post events.
+// Order: the user's liked categories (most liked first), then everything else; within each
+// group posts are ordered by like count, then newest first.
+@Service
+public class RecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+
+    private static final Comparator<PostScore> BY_POPULARITY = Comparator
+            .comparingLong(PostScore::likeCount).reversed()
+            .thenComparing(Comparator.comparingLong(PostScore::timestamp).reversed())
+            .thenComparing(PostScore::postId);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private volatile Index index;
+    private final Object loadLock = new Object();
+
+    // userId -> (category -> number of liked posts in that category)
+    private final Map<String, Map<String, LongAdder>> affinities = new ConcurrentHashMap<>();
+
+    private record PostScore(String postId, String category, long likeCount, long timestamp) {
+    }
+
+    private static class Index {
+        final Map<String, PostScore> posts = new ConcurrentHashMap<>();
+        final NavigableSet<PostScore> ranked = new ConcurrentSkipListSet<>(BY_POPULARITY);
+        final Map<String, NavigableSet<PostScore>> rankedByCategory = new ConcurrentHashMap<>();
+        final Map<String, AtomicInteger> categorySizes = new ConcurrentHashMap<>();
+
+        void put(PostScore score) {
+            posts.compute(score.postId(), (id, previous) -> {
+                if (previous != null) {
+                    unlink(previous);
+                }
+                link(score);
+                return score;
+            });
+        }
+
+        void remove(String postId) {
+            posts.computeIfPresent(postId, (id, previous) -> {
+                unlink(previous);
+                return null;
+            });
+        }
+
+        void adjustLikes(String postId, long delta) {
+            posts.computeIfPresent(postId, (id, previous) -> {
+                unlink(previous);
+                PostScore updated = new PostScore(id, previous.category(), Math.max(0, previous.likeCount() + delta), previous.timestamp());
+                link(updated);
+                return updated;
+            });
+        }
+
+        private void link(PostScore score) {
+            ranked.add(score);
+            if (score.category() != null) {
+                rankedByCategory.computeIfAbsent(score.category(), c -> new ConcurrentSkipListSet<>(BY_POPULARITY)).add(score);
+                categorySizes.computeIfAbsent(score.category(), c -> new AtomicInteger()).incrementAndGet();
+            }
+        }
+
+        private void unlink(PostScore score) {
+            ranked.remove(score);
+            if (score.category() != null) {
+                NavigableSet<PostScore> categorySet = rankedByCategory.get(score.category());
+                if (categorySet != null && categorySet.remove(score)) {
+                    categorySizes.get(score.category()).decrementAndGet();
+                }
+            }
+        }
+
+        int categorySize(String category) {
+            AtomicInteger size = categorySizes.get(category);
+            return size != null ? size.get() : 0;
+        }
+    }
+
+    // Returns the ids of one page of recommended posts for the user
+    public List<String> recommend(String userId, int page, int size) {
+        Index current = ensureLoaded();
+        List<String> preferredCategories = preferredCategories(userId);
+
+        long offset = (long) Math.max(page, 0) * size;
+        List<String> result = new ArrayList<>(size);
+
+        for (String category : preferredCategories) {
+            if (result.size() >= size) {
+                return result;
+            }
+            int categorySize = current.categorySize(category);
+            if (offset >= categorySize) {
+                offset -= categorySize;
+                continue;
+            }
+            NavigableSet<PostScore> categorySet = current.rankedByCategory.get(category);
+            if (categorySet == null) {
+                continue;
+            }
+            for (PostScore score : categorySet) {
+                if (offset > 0) {
+                    offset--;
+                    continue;
+                }
+                result.add(score.postId());
+                if (result.size() >= size) {
+                    return result;
+                }
+            }
+        }
+
+        Set<String> preferred = new HashSet<>(preferredCategories);
+        for (PostScore score : current.ranked) {
+            if (score.category() != null && preferred.contains(score.category())) {
+                continue;
+            }
+            if (offset > 0) {
+                offset--;
+                continue;
+            }
+            result.add(score.postId());
+            if (result.size() >= size) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    public void onLike(String userId, String postId, String category) {
+        // Vectors that aren't loaded yet will read this like from Mongo on first use
+        Map<String, LongAdder> affinity = affinities.get(userId);
+        if (affinity != null && category != null) {
+            affinity.computeIfAbsent(category, c -> new LongAdder()).increment();
+        }
+        Index current = index;
+        if (current != null) {
+            current.adjustLikes(postId, 1);
+        }
+    }
+
+    public void onUnlike(String userId, String postId, String category) {
+        Map<String, LongAdder> affinity = affinities.get(userId);
+        if (affinity != null && category != null) {
+            LongAdder count = affinity.get(category);
+            if (count != null) {
+                count.decrement();
+            }
+        }
+        Index current = index;
+        if (current != null) {
+            current.adjustLikes(postId, -1);
+        }
+    }
+
+    public void onPostSaved(Post post) {
+        Index current = index;
+        if (current != null && post.getId() != null) {
+            current.put(toScore(post));
+        }
+    }
+
+    public void onPostDeleted(String postId) {
+        Index current = index;
+        if (current != null) {
+            current.remove(postId);
+        }
+    }
+
+    // Rebuilds the index from Mongo to pick up writes that bypassed the event hooks
+    @Scheduled(
+            initialDelayString = "${app.recommendations.rebuild-interval-ms:1800000}",
+            fixedDelayString = "${app.recommendations.rebuild-interval-ms:1800000}"
+    )
+    public void rebuild() {
+        if (index == null) {
+            return; // Nothing has asked for recommendations yet
+        }
+        try {
+            index = loadIndex();
+            affinities.clear();
+        } catch (Exception e) {
+            logger.error("Failed to rebuild recommendation index: {}", e.getMessage(), e);
+        }
+    }
+
+    private Index ensureLoaded() {
+        Index current = index;
+        if (current == null) {
+            synchronized (loadLock) {
+                current = index;
+                if (current == null) {
+                    current = loadIndex();
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Index loadIndex() {
+        long start = System.currentTimeMillis();
+        Index loaded = new Index();
+        Query query = new Query();
+        query.fields().include("category", "likeCount", "timestamp");
+        try (Stream<Post> posts = mongoTemplate.stream(query, Post.class)) {
+            posts.forEach(post -> loaded.put(toScore(post)));
+        }
+        logger.info("Loaded {} posts into the recommendation index in {} ms", loaded.posts.size(), System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    private List<String> preferredCategories(String userId) {
+        return affinityOf(userId).entrySet().stream()
+                .filter(entry -> entry.getValue().sum() > 0)
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    private Map<String, LongAdder> affinityOf(String userId) {
+        Map<String, LongAdder> affinity = affinities.get(userId);
+        if (affinity != null) {
+            return affinity;
+        }
+        // Loaded outside the map: a query inside computeIfAbsent would block other users' updates in the same bin
+        Map<String, LongAdder> loaded = loadAffinity(userId);
+        Map<String, LongAdder> existing = affinities.putIfAbsent(userId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    // One grouped query per user on first use; afterwards the vector is maintained from like events
+    private Map<String, LongAdder> loadAffinity(String userId) {
+        Map<String, LongAdder> affinity = new ConcurrentHashMap<>();
+        List<Document> pipeline = List.of(
+                new Document("$match", new Document("userId", userId).append("postCategory", new Document("$ne", null))),
+                new Document("$group", new Document("_id", "$postCategory").append("count", new Document("$sum", 1)))
+        );
+        for (Document row : mongoTemplate.getCollection("likes").aggregate(pipeline)) {
+            LongAdder count = new LongAdder();
+            count.add(((Number) row.get("count")).longValue());
+            affinity.put(row.getString("_id"), count);
+        }
+        return affinity;
+    }
+
+    private static PostScore toScore(Post post) {
+        long timestamp = post.getTimestamp() != null
+                ? post.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : 0L;
+        return new PostScore(post.getId(), post.getCategory(), post.getLikeCount(), timestamp);
+    }
+}
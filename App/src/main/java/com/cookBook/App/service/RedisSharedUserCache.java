@@ -0,0 +1,107 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Users stored as JSON under user:<id>, with user-pid:<providerId> -> id next to them.
+// Evictions are announced on a pub/sub channel so other nodes drop their local copies.
+// An eviction leaves a short-lived tombstone in place of the user, and puts never overwrite one:
+// a node that read the user from Mongo before another node's update can't write that stale copy
+// back for the full TTL. The tombstone has to outlive a Mongo load; it reads as a miss.
+public class RedisSharedUserCache implements SharedUserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisSharedUserCache.class);
+    private static final String USER_KEY = "cookbook:user:";
+    private static final String PROVIDER_ID_KEY = "cookbook:user-pid:";
+    // Never valid JSON for a user, which always starts with '{'
+    private static final String TOMBSTONE = "evicted";
+    private static final RedisScript<Long> PUT_UNLESS_EVICTED = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return 0 end "
+                    + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ChannelTopic evictions;
+    private final Duration ttl;
+    private final Duration tombstoneTtl;
+
+    public RedisSharedUserCache(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                ObjectMapper objectMapper, String evictionChannel, Duration ttl, Duration tombstoneTtl) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.evictions = new ChannelTopic(evictionChannel);
+        this.ttl = ttl;
+        this.tombstoneTtl = tombstoneTtl;
+    }
+
+    @Override
+    public Optional<User> get(String id) {
+        try {
+            String json = redisTemplate.opsForValue().get(USER_KEY + id);
+            return json != null && !TOMBSTONE.equals(json)
+                    ? Optional.of(objectMapper.readValue(json, User.class))
+                    : Optional.empty();
+        } catch (Exception e) {
+            logger.warn("Redis user cache read failed for {}: {}", id, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<String> idForProviderId(String providerId) {
+        try {
+            return Optional.ofNullable(redisTemplate.opsForValue().get(PROVIDER_ID_KEY + providerId));
+        } catch (Exception e) {
+            logger.warn("Redis user cache read failed for provider id {}: {}", providerId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(User user) {
+        try {
+            Long written = redisTemplate.execute(PUT_UNLESS_EVICTED, List.of(USER_KEY + user.getId()),
+                    TOMBSTONE, objectMapper.writeValueAsString(user), Long.toString(ttl.toMillis()));
+            if (written != null && written == 1 && user.getProviderId() != null) {
+                redisTemplate.opsForValue().set(PROVIDER_ID_KEY + user.getProviderId(), user.getId(), ttl);
+            }
+        } catch (Exception e) {
+            logger.warn("Redis user cache write failed for {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    // The provider id mapping is left to expire: it still names the same user, whose entry is gone
+    @Override
+    public void evict(String id) {
+        try {
+            redisTemplate.opsForValue().set(USER_KEY + id, TOMBSTONE, tombstoneTtl);
+            redisTemplate.convertAndSend(evictions.getTopic(), id);
+        } catch (Exception e) {
+            logger.warn("Redis user cache eviction failed for {}: {}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onEvicted(Consumer<String> listener) {
+        listenerContainer.addMessageListener(
+                (Message message, byte[] pattern) -> listener.accept(new String(message.getBody(), StandardCharsets.UTF_8)),
+                evictions);
+    }
+}
@@ -0,0 +1,280 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.MediaRendition;
+import com.cookBook.App.model.Post;
+import com.cookBook.App.model.RenditionJob;
+import com.cookBook.App.repository.RenditionJobRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Generates thumbnail and feed-size renditions of uploaded images in the background.
+// Jobs live in the rendition_jobs collection, so pending work survives restarts; a poller
+// claims them atomically and runs them on a bounded worker pool. Jobs left RUNNING by a
+// crashed node are reclaimed after a timeout, until they run out of attempts.
+@Service
+public class RenditionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenditionService.class);
+
+    private static final int THUMBNAIL_WIDTH = 320;
+    private static final int FEED_WIDTH = 1080;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long MAX_PIXELS = 40_000_000L; // Bounds the decoded raster at ~160 MB
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private RenditionJobRepository renditionJobRepository;
+
+    @Autowired
+    private MediaStorage mediaStorage;
+
+    private final ThreadPoolExecutor workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long staleAfterMinutes;
+
+    public RenditionService(@Value("${app.renditions.workers:2}") int workerCount,
+                            @Value("${app.renditions.stale-after-minutes:10}") long staleAfterMinutes) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "rendition-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.staleAfterMinutes = staleAfterMinutes;
+    }
+
+    // Records a job for the upload; a no-op if the same content was already queued.
+    // Failures are only logged: the upload itself succeeded and feeds fall back to the original.
+    public void enqueue(String sourceUrl) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            mongoTemplate.upsert(
+                    Query.query(Criteria.where("sourceUrl").is(sourceUrl)),
+                    new Update()
+                            .setOnInsert("status", RenditionJob.Status.PENDING)
+                            .setOnInsert("attempts", 0)
+                            .setOnInsert("createdAt", now)
+                            .setOnInsert("updatedAt", now),
+                    RenditionJob.class
+            );
+        } catch (Exception e) {
+            logger.error("Failed to queue renditions for {}: {}", sourceUrl, e.getMessage());
+        }
+    }
+
+    // Copies renditions that are already generated onto a post that is about to be saved
+    public void attachRenditions(Post post) {
+        if (post.getMediaUrls() == null || post.getMediaUrls().isEmpty()) {
+            return;
+        }
+        Map<String, RenditionJob> done = renditionJobRepository
+                .findBySourceUrlInAndStatus(post.getMediaUrls(), RenditionJob.Status.DONE).stream()
+                .filter(job -> job.getThumbnailUrl() != null)
+                .collect(Collectors.toMap(RenditionJob::getSourceUrl, Function.identity(), (a, b) -> a));
+        List<MediaRendition> renditions = new ArrayList<>();
+        for (String url : post.getMediaUrls()) {
+            RenditionJob job = done.get(url);
+            if (job != null) {
+                renditions.add(new MediaRendition(url, job.getThumbnailUrl(), job.getFeedUrl()));
+            }
+        }
+        post.setRenditions(renditions);
+    }
+
+    @Scheduled(initialDelayString = "${app.renditions.poll-interval-ms:5000}", fixedDelayString = "${app.renditions.poll-interval-ms:5000}")
+    public void poll() {
+        try {
+            failExhausted();
+            while (inFlight.get() < workers.getMaximumPoolSize()) {
+                RenditionJob job = claimNext();
+                if (job == null) {
+                    return;
+                }
+                inFlight.incrementAndGet();
+                workers.execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            logger.error("Rendition poll failed: {}", e.getMessage());
+        }
+    }
+
+    private RenditionJob claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        Criteria claimable = new Criteria().orOperator(
+                Criteria.where("status").is(RenditionJob.Status.PENDING),
+                Criteria.where("status").is(RenditionJob.Status.RUNNING).and("updatedAt").lt(now.minusMinutes(staleAfterMinutes))
+                        .and("attempts").lt(MAX_ATTEMPTS)
+        );
+        return mongoTemplate.findAndModify(
+                Query.query(claimable),
+                new Update().set("status", RenditionJob.Status.RUNNING).set("updatedAt", now).inc("attempts", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                RenditionJob.class
+        );
+    }
+
+    // A job that crashed or hung the worker on its last attempt is never reclaimed; give it up
+    private void failExhausted() {
+        LocalDateTime now = LocalDateTime.now();
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("status").is(RenditionJob.Status.RUNNING)
+                        .and("updatedAt").lt(now.minusMinutes(staleAfterMinutes))
+                        .and("attempts").gte(MAX_ATTEMPTS)),
+                new Update().set("status", RenditionJob.Status.FAILED).set("error", "Timed out").set("updatedAt", now),
+                RenditionJob.class
+        );
+    }
+
+    private void process(RenditionJob job) {
+        try {
+            Path source = mediaStorage.resolve(job.getSourceUrl())
+                    .orElseThrow(() -> new IOException("Media not found: " + job.getSourceUrl()));
+            BufferedImage image;
+            try {
+                image = readImage(source);
+            } catch (ImageTooLargeException e) {
+                // Permanent: retrying would only risk the worker again
+                logger.warn("Skipping renditions for {}: {}", job.getSourceUrl(), e.getMessage());
+                mongoTemplate.updateFirst(
+                        Query.query(Criteria.where("id").is(job.getId())),
+                        new Update().set("status", RenditionJob.Status.FAILED).set("error", e.getMessage()).set("updatedAt", LocalDateTime.now()),
+                        RenditionJob.class
+                );
+                return;
+            }
+            if (image == null) {
+                complete(job, null, null); // Video or an image format ImageIO can't decode
+                return;
+            }
+            String thumbnailUrl = storeScaled(image, THUMBNAIL_WIDTH);
+            String feedUrl = storeScaled(image, FEED_WIDTH);
+            complete(job, thumbnailUrl, feedUrl);
+
+            // Posts created before the job finished get the rendition pushed onto them
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("mediaUrls").is(job.getSourceUrl())
+                            .and("renditions.sourceUrl").ne(job.getSourceUrl())),
+                    new Update().push("renditions", new MediaRendition(job.getSourceUrl(), thumbnailUrl, feedUrl)),
+                    Post.class
+            );
+        } catch (Exception e) {
+            logger.warn("Rendition attempt {} failed for {}: {}", job.getAttempts(), job.getSourceUrl(), e.getMessage());
+            RenditionJob.Status status = job.getAttempts() >= MAX_ATTEMPTS ? RenditionJob.Status.FAILED : RenditionJob.Status.PENDING;
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("id").is(job.getId())),
+                    new Update().set("status", status).set("error", e.getMessage()).set("updatedAt", LocalDateTime.now()),
+                    RenditionJob.class
+            );
+        }
+    }
+
+    private void complete(RenditionJob job, String thumbnailUrl, String feedUrl) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(job.getId())),
+                new Update()
+                        .set("status", RenditionJob.Status.DONE)
+                        .set("thumbnailUrl", thumbnailUrl)
+                        .set("feedUrl", feedUrl)
+                        .set("updatedAt", LocalDateTime.now()),
+                RenditionJob.class
+        );
+    }
+
+    // Decodes the image only after checking its declared dimensions, so a small file that
+    // expands to a huge raster (a decompression bomb) can't exhaust the heap
+    private static BufferedImage readImage(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    throw new ImageTooLargeException(reader.getWidth(0), reader.getHeight(0));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static class ImageTooLargeException extends IOException {
+        ImageTooLargeException(int width, int height) {
+            super("Image of " + width + "x" + height + " pixels exceeds the limit of " + MAX_PIXELS);
+        }
+    }
+
+    private String storeScaled(BufferedImage image, int maxWidth) throws IOException {
+        int width = Math.min(maxWidth, image.getWidth());
+        int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+        ImageIO.write(scaled, "jpg", encoded);
+        return mediaStorage.store(new ByteArrayInputStream(encoded.toByteArray()), "rendition.jpg");
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Unfinished jobs stay RUNNING and are reclaimed once stale
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
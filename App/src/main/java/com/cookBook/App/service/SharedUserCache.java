@@ -0,0 +1,22 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.User;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+// Cluster-wide tier behind UserCache's local tier. Lookups that fail must behave like misses.
+public interface SharedUserCache {
+
+    Optional<User> get(String id);
+
+    Optional<String> idForProviderId(String providerId);
+
+    void put(User user);
+
+    // Drops the user and tells every node to drop its local copy
+    void evict(String id);
+
+    // Called with the ids evicted by any node, including this one
+    void onEvicted(Consumer<String> listener);
+}
@@ -0,0 +1,226 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.CursorPage;
+import com.cookBook.App.model.Follow;
+import com.cookBook.App.model.Post;
+import com.cookBook.App.model.User;
+import com.cookBook.App.repository.FollowRepository;
+import com.cookBook.App.repository.PostRepository;
+import com.cookBook.App.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+// Home timelines ("posts from people I follow").
+// Posts are pushed into the capped in-memory timelines of followers when they are created
+// (fan-out-on-write). Authors with more followers than the celebrity threshold are not fanned
+// out; their posts are merged in when a follower reads (fan-out-on-read). Celebrity status is
+// read from User.followersCount on both paths, so it holds across restarts and nodes.
+// Timelines are only kept for recently active users and are rebuilt from Mongo on first read.
+@Service
+public class TimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+            .comparingLong(Entry::timestamp).reversed()
+            .thenComparing(Comparator.comparing(Entry::postId).reversed());
+    private static final int RECENT_RECHECK = 50;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    private final int capacity;
+    private final int celebrityThreshold;
+    private final Map<String, Timeline> timelines;
+
+    public TimelineService(@Value("${app.timeline.capacity:800}") int capacity,
+                           @Value("${app.timeline.celebrity-threshold:10000}") int celebrityThreshold,
+                           @Value("${app.timeline.max-active-users:50000}") int maxActiveUsers) {
+        this.capacity = capacity;
+        this.celebrityThreshold = celebrityThreshold;
+        this.timelines = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Timeline> eldest) {
+                return size() > maxActiveUsers;
+            }
+        });
+    }
+
+    private record Entry(String postId, long timestamp) {
+    }
+
+    private class Timeline {
+        private final NavigableSet<Entry> entries = new TreeSet<>(NEWEST_FIRST);
+
+        synchronized void push(Entry entry) {
+            entries.add(entry);
+            if (entries.size() > capacity) {
+                entries.pollLast();
+            }
+        }
+
+        synchronized void remove(Entry entry) {
+            entries.remove(entry);
+        }
+
+        synchronized List<Entry> page(Entry after, int limit) {
+            List<Entry> page = new ArrayList<>(limit);
+            Iterator<Entry> iterator = after != null ? entries.tailSet(after, false).iterator() : entries.iterator();
+            while (iterator.hasNext() && page.size() < limit) {
+                page.add(iterator.next());
+            }
+            return page;
+        }
+    }
+
+    // Pushes a new post into the author's and their followers' active timelines
+    @Async
+    public void onPostCreated(Post post) {
+        if (post.getId() == null || post.getUserId() == null) {
+            return;
+        }
+        try {
+            Entry entry = toEntry(post);
+            push(post.getUserId(), entry);
+
+            long followersCount = userRepository.findById(post.getUserId())
+                    .map(User::getFollowersCount)
+                    .orElse(0L);
+            if (followersCount > celebrityThreshold) {
+                return;
+            }
+            for (Follow follow : followRepository.findByFolloweeId(post.getUserId())) {
+                push(follow.getFollowerId(), entry);
+            }
+        } catch (Exception e) {
+            logger.error("Timeline fan-out failed for post {}: {}", post.getId(), e.getMessage(), e);
+        }
+    }
+
+    // Removes a deleted post from the author's and their followers' active timelines on this node.
+    // Anywhere else it is dropped at read time, since posts that no longer exist are skipped when
+    // the page is loaded (other nodes, and followers whose edge is already gone).
+    @Async
+    public void onPostDeleted(Post post) {
+        if (post.getId() == null || post.getUserId() == null) {
+            return;
+        }
+        try {
+            Entry entry = toEntry(post);
+            remove(post.getUserId(), entry);
+            for (Follow follow : followRepository.findByFolloweeId(post.getUserId())) {
+                remove(follow.getFollowerId(), entry);
+            }
+        } catch (Exception e) {
+            logger.error("Timeline removal failed for post {}: {}", post.getId(), e.getMessage(), e);
+        }
+    }
+
+    // Drops a cached timeline, e.g. after the user follows or unfollows someone
+    public void invalidate(String userId) {
+        timelines.remove(userId);
+    }
+
+    // Returns one page of post ids for the user's home timeline, newest first
+    public CursorPage<String> getTimeline(User user, String after, int limit) {
+        Entry position = null;
+        LocalDateTime beforeTimestamp = null;
+        if (after != null && !after.isBlank()) {
+            String[] parts = CursorCodec.decode(after, 2);
+            LocalDateTime decoded = CursorCodec.decodeTimestamp(parts[0]);
+            position = new Entry(parts[1], toEpochMillis(decoded));
+            // Entries of posts without a timestamp are keyed at 0 (see toEntry)
+            beforeTimestamp = position.timestamp() != 0L ? decoded : null;
+        }
+
+        Timeline timeline = timelines.get(user.getId());
+        if (timeline == null) {
+            timeline = materialize(user);
+        }
+        List<Entry> merged = new ArrayList<>(timeline.page(position, limit + 1));
+
+        // Fan-out-on-read for followed authors whose posts were not pushed
+        List<String> followedCelebrities = userRepository.findIdsWithFollowersAbove(user.getFollowing(), celebrityThreshold);
+        if (!followedCelebrities.isEmpty()) {
+            String beforeId = position != null ? position.postId() : null;
+            for (Post post : postRepository.findAuthorsPage(followedCelebrities, beforeTimestamp, beforeId, limit + 1)) {
+                merged.add(toEntry(post));
+            }
+            // A timeline built before the author crossed the threshold may already hold some of these
+            merged = new ArrayList<>(merged.stream().distinct().sorted(NEWEST_FIRST).toList());
+        }
+
+        String nextCursor = null;
+        if (merged.size() > limit) {
+            merged = merged.subList(0, limit);
+            Entry last = merged.get(limit - 1);
+            nextCursor = CursorCodec.encode(Long.toString(last.timestamp()), last.postId());
+        }
+        return new CursorPage<>(merged.stream().map(Entry::postId).toList(), nextCursor);
+    }
+
+    private void push(String userId, Entry entry) {
+        Timeline timeline = timelines.get(userId);
+        if (timeline != null) {
+            timeline.push(entry);
+        }
+    }
+
+    private void remove(String userId, Entry entry) {
+        Timeline timeline = timelines.get(userId);
+        if (timeline != null) {
+            timeline.remove(entry);
+        }
+    }
+
+    // Builds a timeline from the newest posts of everyone the user follows (and their own)
+    private Timeline materialize(User user) {
+        Set<String> authors = new HashSet<>(user.getFollowing());
+        authors.add(user.getId());
+        Timeline timeline = new Timeline();
+        for (Post post : postRepository.findAuthorsPage(authors, null, null, capacity)) {
+            timeline.push(toEntry(post));
+        }
+        Timeline existing = timelines.putIfAbsent(user.getId(), timeline);
+        if (existing != null) {
+            return existing;
+        }
+        // A post created after the query above was fanned out before this timeline was visible
+        for (Post post : postRepository.findAuthorsPage(authors, null, null, RECENT_RECHECK)) {
+            timeline.push(toEntry(post));
+        }
+        return timeline;
+    }
+
+    private static Entry toEntry(Post post) {
+        return new Entry(post.getId(), post.getTimestamp() != null ? toEpochMillis(post.getTimestamp()) : 0L);
+    }
+
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,189 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Two-tier cache of user documents, looked up by id or by providerId (the OAuth principal).
+// The local tier is a bounded LRU whose entries expire after a TTL; the optional shared tier
+// (SharedUserCache, Redis) sits between it and Mongo. Writers invalidate both tiers. The
+// generation check below covers invalidations on this node; the shared tier refuses writes that
+// race with an eviction from any node. Cached users are shared instances: callers must not modify them.
+@Component
+public class UserCache {
+
+    private final SharedUserCache shared;
+    private final long ttlMillis;
+    private final Map<String, Entry> byId;
+    private final Map<String, String> idByProviderId = new HashMap<>();
+    // Bumped by every invalidation so a load that raced with one doesn't cache what it read
+    private long generation;
+
+    private final Counter localHits;
+    private final Counter localMisses;
+    private final Counter sharedHits;
+    private final Counter sharedMisses;
+
+    private record Entry(User user, long expiresAt) {
+    }
+
+    public UserCache(@Value("${app.cache.users.max-size:10000}") int maxSize,
+                     @Value("${app.cache.users.ttl-seconds:60}") long ttlSeconds,
+                     ObjectProvider<SharedUserCache> shared,
+                     MeterRegistry meterRegistry) {
+        this.shared = shared.getIfAvailable();
+        this.ttlMillis = ttlSeconds * 1000;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                unindex(eldest.getValue().user());
+                return true;
+            }
+        };
+        this.localHits = counter(meterRegistry, "local", "hit");
+        this.localMisses = counter(meterRegistry, "local", "miss");
+        this.sharedHits = counter(meterRegistry, "redis", "hit");
+        this.sharedMisses = counter(meterRegistry, "redis", "miss");
+        if (this.shared != null) {
+            this.shared.onEvicted(this::invalidateLocal);
+        }
+    }
+
+    public Optional<User> findById(String id, Function<String, Optional<User>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            User cached = getLocal(id);
+            if (cached != null) {
+                localHits.increment();
+                return Optional.of(cached);
+            }
+            localMisses.increment();
+            loadGeneration = generation;
+        }
+        Optional<User> user = getShared(id);
+        if (user.isPresent()) {
+            putLocal(user.get(), loadGeneration);
+            return user;
+        }
+        user = loader.apply(id);
+        user.ifPresent(loaded -> putBoth(loaded, loadGeneration));
+        return user;
+    }
+
+    public Optional<User> findByProviderId(String providerId, Function<String, Optional<User>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            String id = idByProviderId.get(providerId);
+            User cached = id != null ? getLocal(id) : null;
+            if (cached != null) {
+                localHits.increment();
+                return Optional.of(cached);
+            }
+            localMisses.increment();
+            loadGeneration = generation;
+        }
+        Optional<User> user = shared != null
+                ? shared.idForProviderId(providerId).flatMap(this::getShared)
+                        .filter(found -> providerId.equals(found.getProviderId()))
+                : Optional.empty();
+        if (user.isPresent()) {
+            putLocal(user.get(), loadGeneration);
+            return user;
+        }
+        user = loader.apply(providerId);
+        user.ifPresent(loaded -> putBoth(loaded, loadGeneration));
+        return user;
+    }
+
+    public void invalidate(String id) {
+        if (id == null) {
+            return;
+        }
+        invalidateLocal(id);
+        if (shared != null) {
+            shared.evict(id);
+        }
+    }
+
+    public void invalidateAll(Collection<String> ids) {
+        ids.forEach(this::invalidate);
+    }
+
+    private synchronized void invalidateLocal(String id) {
+        generation++;
+        Entry removed = byId.remove(id);
+        if (removed != null) {
+            unindex(removed.user());
+        }
+    }
+
+    private User getLocal(String id) {
+        Entry entry = byId.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() < System.currentTimeMillis()) {
+            byId.remove(id);
+            unindex(entry.user());
+            return null;
+        }
+        return entry.user();
+    }
+
+    private Optional<User> getShared(String id) {
+        if (shared == null) {
+            return Optional.empty();
+        }
+        Optional<User> user = shared.get(id);
+        (user.isPresent() ? sharedHits : sharedMisses).increment();
+        return user;
+    }
+
+    private void putBoth(User user, long loadGeneration) {
+        if (putLocal(user, loadGeneration) && shared != null) {
+            shared.put(user);
+        }
+    }
+
+    // Returns false when an invalidation happened since the load started and the user wasn't cached
+    private synchronized boolean putLocal(User user, long loadGeneration) {
+        if (generation != loadGeneration || user.getId() == null) {
+            return false;
+        }
+        Entry previous = byId.put(user.getId(), new Entry(user, System.currentTimeMillis() + ttlMillis));
+        if (previous != null) {
+            unindex(previous.user());
+        }
+        if (user.getProviderId() != null) {
+            idByProviderId.put(user.getProviderId(), user.getId());
+        }
+        return true;
+    }
+
+    private void unindex(User user) {
+        if (user.getProviderId() != null) {
+            idByProviderId.remove(user.getProviderId(), user.getId());
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("user.cache.requests")
+                .description("User cache lookups")
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -1,18 +1,51 @@
 package com.cookBook.App.service;
 
+import com.cookBook.App.model.Follow;
+import com.cookBook.App.model.FollowPage;
 import com.cookBook.App.model.User;
+import com.cookBook.App.model.UserSummary;
+import com.cookBook.App.repository.FollowRepository;
 import com.cookBook.App.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 public class UserService {
+    private static final int MAX_FOLLOW_PAGE_SIZE = 100;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private AuthorNameCache authorNameCache;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private FollowSuggestionService followSuggestionService;
+
+    @Autowired
+    private ChatSessionRegistry chatSessionRegistry;
+
+    @Autowired
+    private FollowMigration followMigration;
+
     // Get all users
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -23,7 +56,7 @@ public class UserService {
         if (id == null || id.trim().isEmpty()) {
             return Optional.empty();
         }
-        return userRepository.findById(id);
+        return userCache.findById(id, userRepository::findById);
     }
 
     // Update user details
@@ -37,67 +70,20 @@ public class UserService {
             user.setPicture(userDetails.getPicture());
             user.setBirthday(userDetails.getBirthday());
             user.setAbout(userDetails.getAbout());
-            return userRepository.save(user);
+            User savedUser = userRepository.save(user);
+            authorNameCache.invalidate(id);
+            userCache.invalidate(id);
+            chatSessionRegistry.onUserUpdated(savedUser);
+            return savedUser;
         }).orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + id));
     }
 
-    // Delete a user
-    public void deleteUser(String principal, String userId) {
-        if (principal == null || principal.trim().isEmpty()) {
-            throw new IllegalArgumentException("Invalid principal");
-        }
-        if (userId == null || userId.trim().isEmpty()) {
-            throw new IllegalArgumentException("Invalid user ID");
-        }
-
-        // Find the current user by providerId
-        User currentUser = findByProviderId(principal);
-
-        // Check if the user to delete exists
-        User userToDelete = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
-
-        // Ensure the user can only delete their own account
-        if (!currentUser.getId().equals(userId)) {
-            throw new IllegalArgumentException("Unauthorized: You can only delete your own account");
-        }
-
-        // Remove the user from all followers' following lists
-        List<String> followerIds = userToDelete.getFollowers();
-        for (String followerId : followerIds) {
-            userRepository.findById(followerId).ifPresent(follower -> {
-                List<String> following = follower.getFollowing();
-                if (following.contains(userId)) {
-                    following.remove(userId);
-                    follower.setFollowing(following);
-                    userRepository.save(follower);
-                }
-            });
-        }
-
-        // Remove the user from all following users' followers lists
-        List<String> followingIds = userToDelete.getFollowing();
-        for (String followingId : followingIds) {
-            userRepository.findById(followingId).ifPresent(followed -> {
-                List<String> followers = followed.getFollowers();
-                if (followers.contains(userId)) {
-                    followers.remove(userId);
-                    followed.setFollowers(followers);
-                    userRepository.save(followed);
-                }
-            });
-        }
-
-        // Delete the user
-        userRepository.deleteById(userId);
-    }
-
     // Find user by providerId (OAuth2 principal)
     public User findByProviderId(String providerId) {
         if (providerId == null || providerId.trim().isEmpty()) {
             throw new IllegalArgumentException("Invalid provider ID");
         }
-        return userRepository.findByProviderId(providerId)
+        return userCache.findByProviderId(providerId, userRepository::findByProviderId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found with providerId: " + providerId));
     }
 
@@ -115,31 +101,28 @@ public class UserService {
         User currentUser = findByProviderId(principal);
 
         // Check if the user to follow exists
-        User userToFollow = userRepository.findById(userIdToFollow)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userIdToFollow));
+        if (!userRepository.existsById(userIdToFollow)) {
+            throw new IllegalArgumentException("User not found with ID: " + userIdToFollow);
+        }
 
         // Prevent self-following
         if (currentUser.getId().equals(userIdToFollow)) {
             throw new IllegalArgumentException("Cannot follow yourself");
         }
 
-        // Add userIdToFollow to the current user's following list if not already present
-        List<String> following = currentUser.getFollowing();
-        if (!following.contains(userIdToFollow)) {
-            following.add(userIdToFollow);
-            currentUser.setFollowing(following);
+        // The unique (followerId, followeeId) index makes a repeated follow a no-op
+        try {
+            followRepository.insert(new Follow(currentUser.getId(), userIdToFollow, LocalDateTime.now()));
+        } catch (DuplicateKeyException e) {
+            return currentUser;
         }
 
-        // Add current user to the userToFollow's followers list if not already present
-        List<String> followers = userToFollow.getFollowers();
-        if (!followers.contains(currentUser.getId())) {
-            followers.add(currentUser.getId());
-            userToFollow.setFollowers(followers);
-            userRepository.save(userToFollow); // Save the followed user
-        }
-
-        // Save and return the updated current user
-        return userRepository.save(currentUser);
+        User savedUser = userRepository.recordFollow(currentUser.getId(), userIdToFollow);
+        userCache.invalidate(currentUser.getId());
+        userCache.invalidate(userIdToFollow);
+        timelineService.invalidate(currentUser.getId());
+        followSuggestionService.onFollow(currentUser.getId(), userIdToFollow);
+        return savedUser;
     }
 
     // Remove a user from the current user's following list
@@ -156,54 +139,74 @@ public class UserService {
         User currentUser = findByProviderId(principal);
 
         // Check if the user to unfollow exists
-        User userToUnfollow = userRepository.findById(userIdToUnfollow)
-                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userIdToUnfollow));
+        if (!userRepository.existsById(userIdToUnfollow)) {
+            throw new IllegalArgumentException("User not found with ID: " + userIdToUnfollow);
+        }
 
         // Prevent self-unfollowing
         if (currentUser.getId().equals(userIdToUnfollow)) {
             throw new IllegalArgumentException("Cannot unfollow yourself");
         }
 
-        // Remove userIdToUnfollow from the current user's following list
-        List<String> following = currentUser.getFollowing();
-        if (following.contains(userIdToUnfollow)) {
-            following.remove(userIdToUnfollow);
-            currentUser.setFollowing(following);
-        }
+        // Noted before the edge is touched, so a migration still running can't bring it back
+        followMigration.noteUnfollow(currentUser.getId(), userIdToUnfollow);
+
+        // Only the request that actually removed the edge adjusts the counters
+        User savedUser;
+        if (followRepository.deleteByFollowerIdAndFolloweeId(currentUser.getId(), userIdToUnfollow) > 0) {
+            savedUser = userRepository.recordUnfollow(currentUser.getId(), userIdToUnfollow);
+        } else {
+            // No edge: either not following, or a legacy follow that hasn't been migrated
+            savedUser = userRepository.removeLegacyFollow(currentUser.getId(), userIdToUnfollow);
+            if (savedUser == null) {
+                return currentUser;
+            }
+        }
+        userCache.invalidate(currentUser.getId());
+        userCache.invalidate(userIdToUnfollow);
+        timelineService.invalidate(currentUser.getId());
+        followSuggestionService.onUnfollow(currentUser.getId(), userIdToUnfollow);
+        return savedUser;
+    }
 
-        // Remove current user from the userToUnfollow's followers list
-        List<String> followers = userToUnfollow.getFollowers();
-        if (followers.contains(currentUser.getId())) {
-            followers.remove(currentUser.getId());
-            userToUnfollow.setFollowers(followers);
-            userRepository.save(userToUnfollow); // Save the unfollowed user
-        }
+    // One page of the user's followers, most recent first
+    public FollowPage getFollowersPage(User user, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FOLLOW_PAGE_SIZE));
+        Position position = Position.decode(after);
+        List<Follow> edges = followRepository.findFollowersPage(user.getId(), position.timestamp(), position.id(), pageSize + 1);
+        return toFollowPage(edges, pageSize, Follow::getFollowerId, user.getFollowersCount());
+    }
 
-        // Save and return the updated current user
-        return userRepository.save(currentUser);
+    // One page of the users the user follows, most recently followed first
+    public FollowPage getFollowingPage(User user, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_FOLLOW_PAGE_SIZE));
+        Position position = Position.decode(after);
+        List<Follow> edges = followRepository.findFollowingPage(user.getId(), position.timestamp(), position.id(), pageSize + 1);
+        return toFollowPage(edges, pageSize, Follow::getFolloweeId, user.getFollowingCount());
     }
 
-    // Get followers' details by their IDs
-    public List<User> getFollowersByIds(List<String> followerIds) {
-        if (followerIds == null || followerIds.isEmpty()) {
-            return List.of();
-        }
-        // Filter out invalid IDs
-        List<String> validIds = followerIds.stream()
-                .filter(id -> id != null && !id.trim().isEmpty())
-                .toList();
-        return userRepository.findByIdIn(validIds);
+    private FollowPage toFollowPage(List<Follow> edges, int pageSize, Function<Follow, String> otherSide, long total) {
+        String nextCursor = null;
+        if (edges.size() > pageSize) {
+            edges = edges.subList(0, pageSize);
+            Follow last = edges.get(pageSize - 1);
+            nextCursor = CursorCodec.encode(CursorCodec.encodeTimestamp(last.getCreatedAt()), last.getId());
+        }
+        // One projected query for the page, returned in edge order; users deleted meanwhile are skipped
+        List<String> userIds = edges.stream().map(otherSide).toList();
+        Map<String, UserSummary> byId = new HashMap<>();
+        userRepository.findSummaries(userIds).forEach(summary -> byId.put(summary.getId(), summary));
+        List<UserSummary> items = userIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return new FollowPage(items, nextCursor, total);
     }
 
-    // Get following users' details by their IDs
-    public List<User> getFollowingByIds(List<String> followingIds) {
-        if (followingIds == null || followingIds.isEmpty()) {
-            return List.of();
+    private record Position(LocalDateTime timestamp, String id) {
+        static Position decode(String after) {
+            if (after == null || after.isBlank()) {
+                return new Position(null, null);
+            }
+            String[] parts = CursorCodec.decode(after, 2);
+            return new Position(CursorCodec.decodeTimestamp(parts[0]), parts[1]);
         }
-        // Filter out invalid IDs
-        List<String> validIds = followingIds.stream()
-                .filter(id -> id != null && !id.trim().isEmpty())
-                .toList();
-        return userRepository.findByIdIn(validIds);
     }
-}
\ No newline at end of file
+}
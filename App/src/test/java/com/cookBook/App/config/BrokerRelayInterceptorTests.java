@@ -0,0 +1,139 @@
+package com.cookBook.App.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BrokerRelayInterceptorTests {
+
+    // Stand-in for Redis pub/sub: delivers synchronously, in publish order, to every subscriber
+    static class InMemoryBrokerRelayTransport implements BrokerRelayTransport {
+        private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void publish(String message) {
+            listeners.forEach(listener -> listener.accept(message));
+        }
+
+        @Override
+        public void subscribe(Consumer<String> listener) {
+            listeners.add(listener);
+        }
+    }
+
+    // Broker channel of one node: runs the relay interceptor like the real channel, then records
+    static class RecordingChannel implements MessageChannel {
+        final List<Message<?>> delivered = new ArrayList<>();
+        BrokerRelayInterceptor interceptor;
+
+        @Override
+        public boolean send(Message<?> message, long timeout) {
+            Message<?> intercepted = interceptor.preSend(message, this);
+            delivered.add(intercepted);
+            return true;
+        }
+    }
+
+    private RecordingChannel nodeA;
+    private RecordingChannel nodeB;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryBrokerRelayTransport transport = new InMemoryBrokerRelayTransport();
+        nodeA = new RecordingChannel();
+        // Direct executors so relayed messages arrive before send returns
+        nodeA.interceptor = new BrokerRelayInterceptor(transport, nodeA, Runnable::run, Runnable::run);
+        nodeB = new RecordingChannel();
+        nodeB.interceptor = new BrokerRelayInterceptor(transport, nodeB, Runnable::run, Runnable::run);
+    }
+
+    @Test
+    void relaysTopicAndUserMessagesToOtherNodesInOrder() {
+        for (int i = 0; i < 50; i++) {
+            nodeA.send(message(i % 2 == 0 ? "/topic/groupchat" : "/user/alice/queue/notifications", "m" + i));
+        }
+
+        // The local broker got everything once; nothing came back to the publishing node
+        assertThat(nodeA.delivered).hasSize(50);
+        assertThat(nodeB.delivered).hasSize(50);
+        for (int i = 0; i < 50; i++) {
+            Message<?> relayed = nodeB.delivered.get(i);
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(relayed);
+            assertThat(new String((byte[]) relayed.getPayload(), StandardCharsets.UTF_8)).isEqualTo("m" + i);
+            assertThat(accessor.getDestination()).isEqualTo(SimpMessageHeaderAccessor.getDestination(nodeA.delivered.get(i).getHeaders()));
+            assertThat(accessor.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+            assertThat(accessor.getFirstNativeHeader("x-trace")).isEqualTo("t" + i);
+            assertThat(accessor.getHeader(BrokerRelayInterceptor.RELAYED_FROM_HEADER)).isEqualTo(nodeA.interceptor.nodeId());
+        }
+    }
+
+    @Test
+    void keepsSessionResolvedAndOtherDestinationsLocal() {
+        nodeA.send(message("/queue/notifications-user1234", "private"));
+
+        assertThat(nodeA.delivered).hasSize(1);
+        assertThat(nodeB.delivered).isEmpty();
+    }
+
+    @Test
+    void doesNotWaitForTheTransportAndDropsWhenTheQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> published = new CopyOnWriteArrayList<>();
+        BrokerRelayTransport stalled = new BrokerRelayTransport() {
+            @Override
+            public void publish(String message) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                published.add(message);
+            }
+
+            @Override
+            public void subscribe(Consumer<String> listener) {
+            }
+        };
+        RecordingChannel node = new RecordingChannel();
+        node.interceptor = new BrokerRelayInterceptor(stalled, node, 1);
+
+        // One publish in progress, one queued, the rest dropped; local delivery is unaffected
+        for (int i = 0; i < 5; i++) {
+            node.send(message("/topic/groupchat", "m" + i));
+        }
+        assertThat(node.delivered).hasSize(5);
+        assertThat(published).isEmpty();
+
+        release.countDown();
+        node.interceptor.shutdown();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (published.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        assertThat(published).hasSize(2);
+    }
+
+    private static Message<byte[]> message(String destination, String body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.addNativeHeader("x-trace", "t" + body.substring(1));
+        return MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,97 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.ChatMessage;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatMessageWriterTests {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations bulk;
+    private final List<List<String>> attempts = new CopyOnWriteArrayList<>();
+    private ChatMessageWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ChatMessage.class)).thenReturn(bulk);
+        when(bulk.insert(anyList())).thenAnswer(invocation -> {
+            List<?> documents = invocation.getArgument(0);
+            attempts.add(documents.stream().map(document -> ((ChatMessage) document).getId()).toList());
+            return bulk;
+        });
+
+        writer = new ChatMessageWriter(100);
+        ReflectionTestUtils.setField(writer, "mongoTemplate", mongoTemplate);
+    }
+
+    @Test
+    void retriesOnlyTheMessagesThatFailed() throws Exception {
+        when(bulk.execute())
+                .thenThrow(bulkFailure(error(91, 1), error(91, 2)))
+                .thenReturn(BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()));
+
+        writeAll("m0", "m1", "m2");
+
+        assertThat(attempts).containsExactly(List.of("m0", "m1", "m2"), List.of("m1", "m2"));
+    }
+
+    @Test
+    void treatsMessagesStoredByAnEarlierAttemptAsWritten() throws Exception {
+        // The first attempt stored m0 before the connection dropped; resending it hits the unique _id
+        when(bulk.execute())
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenThrow(bulkFailure(error(11000, 0)))
+                .thenReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+
+        writeAll("m0", "m1", "m2");
+
+        // Nothing left to retry after the duplicate, so there is no third attempt
+        assertThat(attempts).containsExactly(List.of("m0", "m1", "m2"), List.of("m0", "m1", "m2"));
+    }
+
+    // Queues the messages before the writer starts, so they are written as one batch, then drains
+    private void writeAll(String... ids) throws InterruptedException {
+        for (String id : ids) {
+            ChatMessage message = new ChatMessage("u1", "Ann", "hello " + id, LocalDateTime.now());
+            message.setId(id);
+            writer.insert(message);
+        }
+        writer.start();
+        writer.shutdown();
+    }
+
+    private static BulkWriteError error(int code, int index) {
+        return new BulkWriteError(code, "error " + code, new BsonDocument(), index);
+    }
+
+    private static BulkOperationException bulkFailure(BulkWriteError... errors) {
+        List<BulkWriteError> writeErrors = new ArrayList<>(List.of(errors));
+        MongoBulkWriteException source = new MongoBulkWriteException(
+                BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()),
+                writeErrors, null, new ServerAddress(), Set.of());
+        return new BulkOperationException("bulk write failed", source);
+    }
+}
@@ -0,0 +1,81 @@
+package com.cookBook.App.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FollowGraphTests {
+
+    // ann follows bob and cat; bob and cat both follow dan, only cat follows eve
+    private static FollowGraph sampleGraph() {
+        FollowGraph.Builder builder = FollowGraph.builder();
+        builder.add("ann", "bob");
+        builder.add("ann", "cat");
+        builder.add("bob", "dan");
+        builder.add("cat", "dan");
+        builder.add("cat", "eve");
+        builder.add("cat", "ann");
+        return builder.build();
+    }
+
+    @Test
+    void ranksSecondHopByMutualCountAndSkipsFollowedUsers() {
+        List<FollowGraph.Candidate> suggestions = sampleGraph().suggest("ann", 10);
+
+        assertThat(suggestions).containsExactly(
+                new FollowGraph.Candidate("dan", 2),
+                new FollowGraph.Candidate("eve", 1));
+    }
+
+    @Test
+    void limitKeepsTheBestCandidates() {
+        assertThat(sampleGraph().suggest("ann", 1)).containsExactly(new FollowGraph.Candidate("dan", 2));
+    }
+
+    @Test
+    void countsCandidatesBeyondTheInitialCountingCapacity() {
+        // One followee reaching far more users than the counting map starts out with
+        FollowGraph.Builder builder = FollowGraph.builder();
+        builder.add("ann", "bob");
+        builder.add("ann", "cat");
+        for (int i = 0; i < 1000; i++) {
+            builder.add("bob", "u" + i);
+        }
+        builder.add("cat", "u500");
+
+        List<FollowGraph.Candidate> suggestions = builder.build().suggest("ann", 2000);
+
+        assertThat(suggestions).hasSize(1000);
+        assertThat(suggestions.get(0)).isEqualTo(new FollowGraph.Candidate("u500", 2));
+    }
+
+    @Test
+    void overlayAppliesFollowsAndUnfollowsOnTopOfTheBaseRows() {
+        FollowGraph graph = sampleGraph();
+
+        graph.unfollow("bob", "dan");
+        graph.follow("ann", "fay"); // A user the graph has not seen yet
+        graph.follow("fay", "eve");
+
+        assertThat(graph.suggest("ann", 10)).containsExactly(
+                new FollowGraph.Candidate("eve", 2),
+                new FollowGraph.Candidate("dan", 1));
+        assertThat(graph.edgeCount()).isEqualTo(7);
+
+        // Undoing the changes empties the overlay again
+        graph.follow("bob", "dan");
+        graph.unfollow("ann", "fay");
+        graph.unfollow("fay", "eve");
+        assertThat(graph.overlaySize()).isZero();
+        assertThat(graph.suggest("ann", 10)).containsExactly(
+                new FollowGraph.Candidate("dan", 2),
+                new FollowGraph.Candidate("eve", 1));
+    }
+
+    @Test
+    void unknownUserGetsNoSuggestions() {
+        assertThat(sampleGraph().suggest("zed", 10)).isEmpty();
+    }
+}
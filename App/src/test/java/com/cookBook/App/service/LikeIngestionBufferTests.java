@@ -0,0 +1,184 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.Like;
+import com.cookBook.App.model.Post;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikeIngestionBufferTests {
+
+    private MongoTemplate mongoTemplate;
+    private BulkOperations likeBulk;
+    private BulkOperations counterBulk;
+    private NotificationService notificationService;
+    private LikeIngestionBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        likeBulk = mock(BulkOperations.class);
+        counterBulk = mock(BulkOperations.class);
+        notificationService = mock(NotificationService.class);
+        Post post = new Post();
+        post.setId("p1");
+        post.setUserId("author");
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenReturn(List.of(post));
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Like.class)).thenReturn(likeBulk);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Post.class)).thenReturn(counterBulk);
+
+        buffer = new LikeIngestionBuffer(1000);
+        ReflectionTestUtils.setField(buffer, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(buffer, "recommendationService", mock(RecommendationService.class));
+        ReflectionTestUtils.setField(buffer, "notificationService", notificationService);
+        ReflectionTestUtils.setField(buffer, "interactionService", mock(InteractionService.class));
+    }
+
+    @Test
+    void pendingCountCoversLikesUntilTheirCounterIsApplied() {
+        when(likeBulk.execute()).thenReturn(upserted(0, 1));
+        when(counterBulk.execute()).thenReturn(upserted());
+
+        buffer.submit(like("p1", "u1"));
+        buffer.submit(like("p1", "u2"));
+        assertThat(buffer.pendingCount("p1")).isEqualTo(2);
+
+        buffer.flush();
+
+        assertThat(buffer.pendingCount("p1")).isZero();
+        verify(notificationService).publish(anyList());
+    }
+
+    @Test
+    void retriesOnlyTheCounterUpdateAfterItFails() {
+        when(likeBulk.execute()).thenReturn(upserted(0));
+        when(counterBulk.execute())
+                .thenThrow(new DataAccessResourceFailureException("primary stepped down"))
+                .thenReturn(upserted());
+
+        buffer.submit(like("p1", "u1"));
+        buffer.flush();
+
+        // Stored but not counted yet: still reported as pending, nobody notified
+        assertThat(buffer.pendingCount("p1")).isEqualTo(1);
+        verify(notificationService, never()).publish(anyList());
+
+        buffer.flush();
+
+        verify(likeBulk, times(1)).execute();
+        verify(counterBulk, times(2)).execute();
+        verify(notificationService).publish(anyList());
+        assertThat(buffer.pendingCount("p1")).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void countsALikeStoredByAnUpsertThatFailedPartWay() {
+        // The first attempt stored the like and then failed; the retry only matches it
+        when(likeBulk.execute())
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(upserted());
+        when(counterBulk.execute()).thenReturn(upserted());
+        when(mongoTemplate.find(any(Query.class), eq(Like.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Collection<String> ids = (Collection<String>) query.getQueryObject().get("id", Document.class).get("$in");
+            return ids.stream().map(id -> {
+                Like stored = new Like();
+                stored.setId(id);
+                return stored;
+            }).toList();
+        });
+
+        buffer.submit(like("p1", "u1"));
+        buffer.flush();
+        assertThat(buffer.pendingCount("p1")).isEqualTo(1);
+
+        buffer.flush();
+
+        verify(counterBulk, times(1)).execute();
+        verify(notificationService).publish(anyList());
+        assertThat(buffer.pendingCount("p1")).isZero();
+    }
+
+    @Test
+    void cancelDuringAFlushWaitsUntilTheLikeIsStored() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(likeBulk.execute()).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return upserted(0);
+        });
+        when(counterBulk.execute()).thenReturn(upserted());
+
+        buffer.submit(like("p1", "u1"));
+        CompletableFuture<Void> flush = CompletableFuture.runAsync(buffer::flush);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(buffer.isPending("p1", "u1")).isTrue();
+
+        CompletableFuture<Boolean> cancel = CompletableFuture.supplyAsync(() -> buffer.cancel("p1", "u1"));
+        Thread.sleep(100);
+        assertThat(cancel).isNotDone();
+
+        release.countDown();
+        flush.get(5, TimeUnit.SECONDS);
+        // The like was stored by the flush, so the caller has to remove it from Mongo
+        assertThat(cancel.get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(buffer.isPending("p1", "u1")).isFalse();
+    }
+
+    @Test
+    void cancelAllDropsOnlyThatUsersBufferedLikes() {
+        buffer.submit(like("p1", "u1"));
+        buffer.submit(like("p2", "u1"));
+        buffer.submit(like("p1", "u2"));
+
+        assertThat(buffer.cancelAll("u1")).isEqualTo(2);
+
+        assertThat(buffer.isPending("p1", "u1")).isFalse();
+        assertThat(buffer.isPending("p2", "u1")).isFalse();
+        assertThat(buffer.isPending("p1", "u2")).isTrue();
+        assertThat(buffer.pendingCount("p1")).isEqualTo(1);
+        assertThat(buffer.pendingCount("p2")).isZero();
+    }
+
+    private static Like like(String postId, String userId) {
+        Like like = new Like();
+        like.setPostId(postId);
+        like.setUserId(userId);
+        like.setUser(userId);
+        return like;
+    }
+
+    private static BulkWriteResult upserted(int... indexes) {
+        List<BulkWriteUpsert> upserts = Arrays.stream(indexes)
+                .mapToObj(index -> new BulkWriteUpsert(index, new BsonString("id" + index)))
+                .toList();
+        return BulkWriteResult.acknowledged(0, 0, 0, 0, upserts, List.of());
+    }
+}
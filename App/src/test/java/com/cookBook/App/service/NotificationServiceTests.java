@@ -0,0 +1,107 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.NotificationMessage;
+import com.cookBook.App.model.Post;
+import com.cookBook.App.model.User;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationServiceTests {
+
+    private MongoTemplate mongoTemplate;
+    private SimpMessagingTemplate messagingTemplate;
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        notificationService = new NotificationService(60);
+        ReflectionTestUtils.setField(notificationService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(notificationService, "messagingTemplate", messagingTemplate);
+    }
+
+    @Test
+    void skipsTaggedNamesThatMatchSeveralUsers() {
+        when(mongoTemplate.find(any(Query.class), eq(User.class)))
+                .thenReturn(List.of(user("ann-1", "Ann"), user("ann-2", "Ann"), user("bob", "Bob")));
+
+        Post post = new Post();
+        post.setId(new ObjectId().toHexString());
+        post.setTaggedFriends(List.of("Ann", "Bob"));
+        notificationService.publish(List.of(new NotificationService.PostActivity(post, "actor", "Carol",
+                new NotificationMessage("COMMENT", "Carol", "private remark"))));
+
+        verify(messagingTemplate).convertAndSendToUser(eq("bob"), eq(NotificationService.DESTINATION), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("ann-1"), anyString(), any(Object.class));
+        verify(messagingTemplate, never()).convertAndSendToUser(eq("ann-2"), anyString(), any(Object.class));
+    }
+
+    @Test
+    void coalescesIntoTheLatestGroupWhileItIsStillOpen() {
+        assertThat(groupKeyUsedAfter(latestGroup("COMMENT:p1:old", LocalDateTime.now().minusMinutes(50))))
+                .isEqualTo("COMMENT:p1:old");
+    }
+
+    @Test
+    void startsANewGroupKeyedByTheExpiredOne() {
+        NotificationMessage expired = latestGroup("COMMENT:p1:old", LocalDateTime.now().minusMinutes(61));
+        assertThat(groupKeyUsedAfter(expired)).isEqualTo("COMMENT:p1:" + expired.getId());
+        assertThat(groupKeyUsedAfter(null)).isEqualTo("COMMENT:p1:first");
+    }
+
+    // Delivers one comment on p1 to its author and returns the group key the write went to
+    private String groupKeyUsedAfter(NotificationMessage latest) {
+        User author = user("author", "Dan");
+        when(mongoTemplate.find(any(Query.class), eq(User.class))).thenReturn(List.of(author));
+        when(mongoTemplate.findOne(any(Query.class), eq(NotificationMessage.class))).thenReturn(latest);
+
+        Post post = new Post();
+        post.setId("p1");
+        post.setUserId(author.getId());
+        notificationService.publish(List.of(new NotificationService.PostActivity(post, "actor", "Carol",
+                new NotificationMessage("COMMENT", "Carol", "nice"))));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate, atLeastOnce()).findAndModify(query.capture(), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(NotificationMessage.class));
+        return query.getValue().getQueryObject().getString("groupKey");
+    }
+
+    private static NotificationMessage latestGroup(String groupKey, LocalDateTime updatedAt) {
+        NotificationMessage message = new NotificationMessage("COMMENT", "Ann", "first");
+        message.setId(new ObjectId().toHexString());
+        message.setGroupKey(groupKey);
+        message.setUpdatedAt(updatedAt);
+        return message;
+    }
+
+    private static User user(String providerId, String name) {
+        User user = new User();
+        user.setId(new ObjectId().toHexString());
+        user.setProviderId(providerId);
+        user.setName(name);
+        return user;
+    }
+}
@@ -0,0 +1,65 @@
+package com.cookBook.App.service;
+
+import com.cookBook.App.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RedisSharedUserCacheTests {
+
+    private StringRedisTemplate redisTemplate;
+    private ValueOperations<String, String> values;
+    private RedisSharedUserCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(values);
+        cache = new RedisSharedUserCache(redisTemplate, mock(RedisMessageListenerContainer.class), new ObjectMapper(),
+                "evictions", Duration.ofMinutes(10), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void evictionLeavesATombstoneThatReadsAsAMiss() {
+        cache.evict("u1");
+
+        verify(values).set("cookbook:user:u1", "evicted", Duration.ofSeconds(30));
+        verify(redisTemplate).convertAndSend("evictions", "u1");
+
+        when(values.get("cookbook:user:u1")).thenReturn("evicted");
+        assertThat(cache.get("u1")).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void putRefusedByATombstoneDoesNotMapTheProviderId() {
+        // The script found the tombstone and wrote nothing
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("cookbook:user:u1")), any(Object[].class)))
+                .thenReturn(0L);
+        User user = new User();
+        user.setId("u1");
+        user.setProviderId("p1");
+
+        cache.put(user);
+
+        verify(values, never()).set(eq("cookbook:user-pid:p1"), anyString(), any(Duration.class));
+    }
+}
@@ -1,4 +1,5 @@
 import React, { useState, useEffect, useRef } from "react";
+import axios from "axios";
 import SockJS from "sockjs-client";
 import { Client } from "@stomp/stompjs";
 
@@ -9,8 +10,30 @@ const Notification = ({ incrementNotificationCount }) => {
   });
   const [unreadCount, setUnreadCount] = useState(0);
   const clientRef = useRef(null);
+  // Latest list, for the push handler registered once below
+  const notificationsRef = useRef(notifications);
 
   useEffect(() => {
+    notificationsRef.current = notifications;
+  }, [notifications]);
+
+  const loadUnreadCount = () =>
+    axios
+      .get("http://localhost:8080/api/notifications/unread-count", { withCredentials: true })
+      .then((res) => setUnreadCount(res.data))
+      .catch((err) => console.error("❌ Error loading unread count:", err));
+
+  useEffect(() => {
+    // The inbox is stored server-side, so notifications received while offline show up too
+    axios
+      .get("http://localhost:8080/api/notifications", { withCredentials: true })
+      .then((res) => {
+        setNotifications(res.data.items);
+        localStorage.setItem("notifications", JSON.stringify(res.data.items));
+      })
+      .catch((err) => console.error("❌ Error loading notifications:", err));
+    loadUnreadCount();
+
     const socket = new SockJS("http://localhost:8080/chat-websocket");
     const client = new Client({
       webSocketFactory: () => socket,
@@ -21,19 +44,33 @@ const Notification = ({ incrementNotificationCount }) => {
     client.onConnect = () => {
       console.log("✅ Connected to WebSocket");
 
-      client.subscribe("/topic/notifications", (message) => {
+      client.subscribe("/user/queue/notifications", (message) => {
         try {
           const notification = JSON.parse(message.body);
+          const earlier = notification.id
+            ? notificationsRef.current.find((n) => n.id === notification.id)
+            : undefined;
           setNotifications((prev) => {
-            const updatedNotifications = [notification, ...prev];
+            // A coalesced notification replaces its earlier version and moves to the top
+            const updatedNotifications = [
+              notification,
+              ...prev.filter((n) => !notification.id || n.id !== notification.id),
+            ];
             localStorage.setItem(
               "notifications",
               JSON.stringify(updatedNotifications)
             );
             return updatedNotifications;
           });
-          setUnreadCount((prev) => prev + 1);
-          incrementNotificationCount();
+          // Only a new group adds one; an update to an unread group is already counted, and
+          // whether a read group became unread again is up to the server
+          if (!earlier) {
+            setUnreadCount((prev) => prev + 1);
+            incrementNotificationCount();
+          } else if (earlier.read) {
+            loadUnreadCount();
+            incrementNotificationCount();
+          }
         } catch (err) {
           console.error("❌ Error parsing message:", err);
         }
@@ -59,8 +96,15 @@ const Notification = ({ incrementNotificationCount }) => {
 
   const markAllAsRead = () => {
     setUnreadCount(0);
+    setNotifications((prev) => prev.map((n) => ({ ...n, read: true })));
+    axios
+      .post("http://localhost:8080/api/notifications/read", null, { withCredentials: true })
+      .catch((err) => console.error("❌ Error marking notifications read:", err));
   };
 
+  const othersText = (notification) =>
+    notification.actorCount > 1 ? ` and ${notification.actorCount - 1} others` : "";
+
   return (
     <div className="fixed bottom-4 right-4 w-1/2 h-1/2 bg-white bg-opacity-50 shadow-2xl rounded-lg overflow-hidden z-50 border border-gray-300">
       <div className="bg-blue-700 bg-opacity-90 text-white px-6 py-3 font-bold flex justify-between items-center">
@@ -76,17 +120,17 @@ const Notification = ({ incrementNotificationCount }) => {
       </div>
       <ul className="h-full overflow-y-auto divide-y divide-gray-200">
         {notifications.map((notification, index) => (
-          <li key={index} className="px-6 py-4 hover:bg-gray-50 transition">
+          <li key={notification.id || index} className="px-6 py-4 hover:bg-gray-50 transition">
             {notification.type === "COMMENT" && (
               <p className="text-gray-800">
-                <strong className="text-blue-700">{notification.user}</strong>{" "}
-                commented: "{notification.text}"
+                <strong className="text-blue-700">{notification.user}</strong>
+                {othersText(notification)} commented: "{notification.text}"
               </p>
             )}
             {notification.type === "LIKE" && (
               <p className="text-gray-800">
-                <strong className="text-blue-700">{notification.user}</strong>{" "}
-                liked your post.
+                <strong className="text-blue-700">{notification.user}</strong>
+                {othersText(notification)} liked your post.
               </p>
             )}
           </li>
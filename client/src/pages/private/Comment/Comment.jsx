@@ -7,6 +7,7 @@ export default function CommentPage() {
   const { user } = useAuth();
   const { postId } = useParams(); // Assumes postId from route like /post/1/comments
   const [comments, setComments] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [commentText, setCommentText] = useState('');
   const [editingComment, setEditingComment] = useState(null);
 
@@ -14,16 +15,16 @@ export default function CommentPage() {
     fetchComments();
   }, [postId]);
 
-  const fetchComments = async () => {
+  // Loads the first page of the thread, or appends the next one when after is set
+  const fetchComments = async (after = null) => {
     try {
-      const res = await axios.get(`http://localhost:8080/api/comments/${postId}`, {
+      const res = await axios.get(`http://localhost:8080/api/comments/${postId}/page`, {
         withCredentials: true,
+        params: { after, limit: 20 },
       });
-      
-      
-      
 
-      setComments(res.data);
+      setComments((prev) => (after ? [...prev, ...res.data.items] : res.data.items));
+      setNextCursor(res.data.nextCursor);
     } catch (err) {
       console.error("Error fetching comments:", err);
     }
@@ -134,6 +135,14 @@ export default function CommentPage() {
           </li>
         ))}
       </ul>
+      {nextCursor && (
+        <button
+          className="mt-4 w-full text-blue-600 hover:underline"
+          onClick={() => fetchComments(nextCursor)}
+        >
+          Load more comments
+        </button>
+      )}
     </div>
   );
 }
@@ -4,22 +4,41 @@ import { useNavigate } from 'react-router-dom';
 
 export default function Followers() {
   const [followers, setFollowers] = useState([]);
+  const [total, setTotal] = useState(0);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const navigate = useNavigate();
 
-  const fetchFollowers = async () => {
+  // Loads the first page, or appends the next one when after is set
+  const fetchFollowers = async (after = null) => {
     try {
-      setLoading(true);
+      if (after) {
+        setLoadingMore(true);
+      } else {
+        setLoading(true);
+      }
       const response = await axios.get('http://localhost:8080/users/me/followers', {
         withCredentials: true,
+        params: { after, limit: 50 },
         headers: {
           'Content-Type': 'application/json',
         },
       });
-      setFollowers(response.data || []);
+      const items = response.data?.items || [];
+      setFollowers((prev) => (after ? [...prev, ...items] : items));
+      setNextCursor(response.data?.nextCursor ?? null);
+      setTotal(response.data?.total ?? 0);
       setLoading(false);
+      setLoadingMore(false);
     } catch (err) {
+      if (after) {
+        // Keep what is already shown; the button stays so the page can be retried
+        setLoadingMore(false);
+        console.error('Error fetching more followers:', err);
+        return;
+      }
       if (err.response) {
         if (err.response.status === 401) {
           setError('Unauthorized: Please log in again.');
@@ -64,7 +83,7 @@ export default function Followers() {
         <div className="bg-white p-6 rounded-lg shadow-md max-w-md w-full">
           <p className="text-red-500 text-lg font-medium text-center">{error}</p>
           <button 
-            onClick={fetchFollowers}
+            onClick={() => fetchFollowers()}
             className="mt-4 w-full bg-indigo-500 text-white py-2 px-4 rounded-md hover:bg-indigo-600 transition duration-200 ease-in-out"
           >
             Try Again
@@ -83,7 +102,7 @@ export default function Followers() {
               <h2 className="text-xl font-semibold text-gray-800">Your Followers</h2>
             </div>
             <span className="bg-indigo-100 text-indigo-700 py-1 px-3 rounded-full text-sm font-medium">
-              {followers.length} {followers.length === 1 ? 'follower' : 'followers'}
+              {total} {total === 1 ? 'follower' : 'followers'}
             </span>
           </div>
           
@@ -135,6 +154,17 @@ export default function Followers() {
                 ))}
               </ul>
             )}
+            {nextCursor && (
+              <div className="p-4 flex justify-center">
+                <button
+                  onClick={() => fetchFollowers(nextCursor)}
+                  disabled={loadingMore}
+                  className="text-indigo-600 hover:text-indigo-700 px-4 py-2 rounded-md border border-indigo-200 hover:border-indigo-300 bg-white hover:bg-indigo-50 transition duration-150 text-sm disabled:opacity-50"
+                >
+                  {loadingMore ? 'Loading...' : 'Load more followers'}
+                </button>
+              </div>
+            )}
           </div>
         </div>
       </div>
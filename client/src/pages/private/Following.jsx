@@ -9,6 +9,8 @@ const Profile = () => {
   const [posts, setPosts] = useState([]);
   const [followers, setFollowers] = useState([]);
   const [following, setFollowing] = useState([]);
+  const [followersCursor, setFollowersCursor] = useState(null);
+  const [followingCursor, setFollowingCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [activeTab, setActiveTab] = useState('posts');
@@ -38,29 +40,17 @@ const Profile = () => {
           console.log('Filtered and sorted user posts:', userPosts);
           setPosts(userPosts);
 
-          // Fetch followers
+          // Fetch the first page of followers
           try {
-            const followersResponse = await axios.get(`http://localhost:8080/users/${user.id}/followers`, {
-              withCredentials: true,
-            });
-            console.log('Followers fetched:', followersResponse.data);
-            // Filter out the logged-in user
-            const filteredFollowers = (followersResponse.data || []).filter(follower => follower.id !== user.id);
-            setFollowers(filteredFollowers);
+            await fetchFollowersPage();
           } catch (followersErr) {
             console.error('Error fetching followers:', followersErr);
             setFollowers([]);
           }
 
-          // Fetch following
+          // Fetch the first page of following
           try {
-            const followingResponse = await axios.get(`http://localhost:8080/users/me/following`, {
-              withCredentials: true,
-            });
-            console.log('Following fetched:', followingResponse.data);
-            // Filter out the logged-in user
-            const filteredFollowing = (followingResponse.data || []).filter(person => person.id !== user.id);
-            setFollowing(filteredFollowing);
+            await fetchFollowingPage();
           } catch (followingErr) {
             console.error('Error fetching following:', followingErr);
             setFollowing([]);
@@ -81,6 +71,38 @@ const Profile = () => {
     }
   }, [user]);
 
+  // Loads the first page of followers, or appends the next one when after is set
+  const fetchFollowersPage = async (after = null) => {
+    const response = await axios.get(`http://localhost:8080/users/${user.id}/followers`, {
+      withCredentials: true,
+      params: { after, limit: 50 },
+    });
+    // Filter out the logged-in user
+    const items = (response.data?.items || []).filter(follower => follower.id !== user.id);
+    setFollowers(prev => (after ? [...prev, ...items] : items));
+    setFollowersCursor(response.data?.nextCursor ?? null);
+  };
+
+  // Loads the first page of following, or appends the next one when after is set
+  const fetchFollowingPage = async (after = null) => {
+    const response = await axios.get(`http://localhost:8080/users/me/following`, {
+      withCredentials: true,
+      params: { after, limit: 50 },
+    });
+    // Filter out the logged-in user
+    const items = (response.data?.items || []).filter(person => person.id !== user.id);
+    setFollowing(prev => (after ? [...prev, ...items] : items));
+    setFollowingCursor(response.data?.nextCursor ?? null);
+  };
+
+  const loadMore = async (fetchPage, cursor) => {
+    try {
+      await fetchPage(cursor);
+    } catch (err) {
+      console.error('Error loading more:', err);
+    }
+  };
+
   const handleLogout = async () => {
     try {
       console.log('Logging out user');
@@ -98,14 +120,8 @@ const Profile = () => {
         withCredentials: true,
         headers: { 'Content-Type': 'application/json' },
       });
-      // Fetch updated following list
-      const followingResponse = await axios.get(`http://localhost:8080/users/me/following`, {
-        withCredentials: true,
-      });
-      // Filter out the logged-in user
-      const filteredFollowing = (followingResponse.data || []).filter(person => person.id !== user.id);
-      console.log('Updated following list:', filteredFollowing);
-      setFollowing(filteredFollowing);
+      // Reload the following list from its first page
+      await fetchFollowingPage();
     } catch (err) {
       console.error('Error following user:', err);
       setError('Failed to follow user. Please try again.');
@@ -118,14 +134,8 @@ const Profile = () => {
         withCredentials: true,
         headers: { 'Content-Type': 'application/json' },
       });
-      // Fetch updated following list
-      const followingResponse = await axios.get(`http://localhost:8080/users/me/following`, {
-        withCredentials: true,
-      });
-      // Filter out the logged-in user
-      const filteredFollowing = (followingResponse.data || []).filter(person => person.id !== user.id);
-      console.log('Updated following list after unfollow:', filteredFollowing);
-      setFollowing(filteredFollowing);
+      // Reload the following list from its first page
+      await fetchFollowingPage();
     } catch (err) {
       console.error('Error unfollowing user:', err);
       setError('Failed to unfollow user. Please try again.');
@@ -245,6 +255,16 @@ const Profile = () => {
                 ))}
               </ul>
             )}
+            {followersCursor && (
+              <div className="p-4 flex justify-center">
+                <button
+                  onClick={() => loadMore(fetchFollowersPage, followersCursor)}
+                  className="text-indigo-600 hover:text-indigo-700 px-4 py-2 rounded-md border border-indigo-200 hover:border-indigo-300 bg-white hover:bg-indigo-50 transition duration-150 text-sm"
+                >
+                  Load more
+                </button>
+              </div>
+            )}
           </div>
         );
       case 'following':
@@ -303,6 +323,16 @@ const Profile = () => {
                 ))}
               </ul>
             )}
+            {followingCursor && (
+              <div className="p-4 flex justify-center">
+                <button
+                  onClick={() => loadMore(fetchFollowingPage, followingCursor)}
+                  className="text-indigo-600 hover:text-indigo-700 px-4 py-2 rounded-md border border-indigo-200 hover:border-indigo-300 bg-white hover:bg-indigo-50 transition duration-150 text-sm"
+                >
+                  Load more
+                </button>
+              </div>
+            )}
           </div>
         );
       default:
@@ -417,7 +447,7 @@ const Profile = () => {
                   <div>
                     <p className="text-gray-500 text-xs font-medium">Followers</p>
                     <div className="flex items-end">
-                      <p className="text-lg font-bold text-gray-800">{followers.length}</p>
+                      <p className="text-lg font-bold text-gray-800">{dbUser?.followersCount ?? followers.length}</p>
                     </div>
                   </div>
                 </div>
@@ -433,7 +463,7 @@ const Profile = () => {
                   <div>
                     <p className="text-gray-500 text-xs font-medium">Following</p>
                     <div className="flex items-end">
-                      <p className="text-lg font-bold text-gray-800">{following.length}</p>
+                      <p className="text-lg font-bold text-gray-800">{dbUser?.followingCount ?? following.length}</p>
                     </div>
                   </div>
                 </div>
@@ -503,7 +533,7 @@ const Profile = () => {
               }`}
               onClick={() => setActiveTab('followers')}
             >
-              Followers ({followers.length})
+              Followers ({dbUser?.followersCount ?? followers.length})
             </Link>
             <Link
               to="/following"
@@ -514,7 +544,7 @@ const Profile = () => {
               }`}
               onClick={() => setActiveTab('following')}
             >
-              Following ({following.length})
+              Following ({dbUser?.followingCount ?? following.length})
             </Link>
           </div>
           <div className="p-4">
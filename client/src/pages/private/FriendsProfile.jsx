@@ -145,7 +145,7 @@ const FriendsProfile = () => {
                   </div>
                   <div className="text-center">
                     <span className="font-semibold text-gray-900">
-                      {user?.followers?.length || 0}
+                      {user?.followersCount ?? user?.followers?.length ?? 0}
                     </span>
                     <span className="text-gray-600 block text-sm">
                       Followers
@@ -153,7 +153,7 @@ const FriendsProfile = () => {
                   </div>
                   <div className="text-center">
                     <span className="font-semibold text-gray-900">
-                      {user?.following?.length || 0}
+                      {user?.followingCount ?? user?.following?.length ?? 0}
                     </span>
                     <span className="text-gray-600 block text-sm">
                       Following
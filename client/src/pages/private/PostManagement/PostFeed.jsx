@@ -12,6 +12,7 @@ const PostFeed = () => {
   const [filter, setFilter] = useState("all");
   const [searchTerm, setSearchTerm] = useState("");
   const [comments, setComments] = useState({});
+  const [commentCursors, setCommentCursors] = useState({});
   const [visibleComments, setVisibleComments] = useState({});
   const [commentText, setCommentText] = useState("");
   const [editingCommentId, setEditingCommentId] = useState(null);
@@ -21,8 +22,18 @@ const PostFeed = () => {
   const [isCommentPopupOpen, setIsCommentPopupOpen] = useState(false);
   const [activePostId, setActivePostId] = useState(null);
 
+  // Only the loaded pages of a thread are in comments, so prefer the post's counter
   const getCommentCount = (postId) => {
-    return comments[postId]?.length || 0;
+    const post = posts.find((p) => p.id === postId);
+    return Math.max(post?.commentCount || 0, comments[postId]?.length || 0);
+  };
+
+  const adjustCommentCount = (postId, delta) => {
+    setPosts((prev) =>
+      prev.map((p) =>
+        p.id === postId ? { ...p, commentCount: Math.max(0, (p.commentCount || 0) + delta) } : p
+      )
+    );
   };
 
   const userName = user?.name || "Anonymous";
@@ -69,13 +80,18 @@ const PostFeed = () => {
     }
   };
 
-  const fetchComments = async (postId) => {
+  // Loads the first page of the thread, or the next one when after is the previous nextCursor
+  const fetchComments = async (postId, after = null) => {
     try {
       const res = await axios.get(
-        `http://localhost:8080/api/comments/${postId}`,
-        { withCredentials: true }
+        `http://localhost:8080/api/comments/${postId}/page`,
+        { withCredentials: true, params: { after, limit: 20 } }
       );
-      setComments((prev) => ({ ...prev, [postId]: res.data }));
+      setComments((prev) => ({
+        ...prev,
+        [postId]: after ? [...(prev[postId] || []), ...res.data.items] : res.data.items,
+      }));
+      setCommentCursors((prev) => ({ ...prev, [postId]: res.data.nextCursor }));
     } catch (err) {
       toast.error("Failed to fetch comments");
     }
@@ -89,10 +105,14 @@ const PostFeed = () => {
         { text: commentText, postId, user: userName },
         { withCredentials: true }
       );
-      setComments((prev) => ({
-        ...prev,
-        [postId]: [...(prev[postId] || []), res.data],
-      }));
+      // Comments are oldest first; a new one belongs at the end only once the whole thread is loaded
+      if (!commentCursors[postId]) {
+        setComments((prev) => ({
+          ...prev,
+          [postId]: [...(prev[postId] || []), res.data],
+        }));
+      }
+      adjustCommentCount(postId, 1);
       setCommentText("");
     } catch (err) {
       toast.error("Failed to post comment");
@@ -136,6 +156,7 @@ const PostFeed = () => {
           ...prev,
           [postId]: prev[postId].filter((comment) => comment.id !== commentId),
         }));
+        adjustCommentCount(postId, -1);
         toast.success("Comment deleted successfully");
       } catch (err) {
         toast.error("Failed to delete comment");
@@ -733,6 +754,14 @@ const PostFeed = () => {
                   </li>
                 ))}
               </ul>
+              {commentCursors[activePostId] && (
+                <button
+                  className="mt-4 w-full text-purple-600 hover:underline"
+                  onClick={() => fetchComments(activePostId, commentCursors[activePostId])}
+                >
+                  Load more comments
+                </button>
+              )}
             </div>
           </div>
         </div>
@@ -11,6 +11,10 @@ const Profile = () => {
   const [posts, setPosts] = useState([]);
   const [followers, setFollowers] = useState([]);
   const [following, setFollowing] = useState([]);
+  const [followersTotal, setFollowersTotal] = useState(0);
+  const [followingTotal, setFollowingTotal] = useState(0);
+  const [followersCursor, setFollowersCursor] = useState(null);
+  const [followingCursor, setFollowingCursor] = useState(null);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState(null);
   const [activeTab, setActiveTab] = useState("posts");
@@ -98,28 +102,14 @@ const Profile = () => {
           setPosts(userPosts);
 
           try {
-            const followersResponse = await axios.get(
-              `http://localhost:8080/users/${user.id}/followers`,
-              {
-                withCredentials: true,
-              }
-            );
-            console.log("Followers fetched:", followersResponse.data);
-            setFollowers(followersResponse.data || []);
+            await fetchFollowersPage();
           } catch (followersErr) {
             console.error("Error fetching followers:", followersErr);
             setFollowers([]);
           }
 
           try {
-            const followingResponse = await axios.get(
-              `http://localhost:8080/users/me/following`,
-              {
-                withCredentials: true,
-              }
-            );
-            console.log("Following fetched:", followingResponse.data);
-            setFollowing(followingResponse.data || []);
+            await fetchFollowingPage();
           } catch (followingErr) {
             console.error("Error fetching following:", followingErr);
             setFollowing([]);
@@ -142,6 +132,44 @@ const Profile = () => {
     }
   }, [user]);
 
+  // Loads the first page of followers, or appends the next one when after is set
+  const fetchFollowersPage = async (after = null) => {
+    const response = await axios.get(
+      `http://localhost:8080/users/${user.id}/followers`,
+      {
+        withCredentials: true,
+        params: { after, limit: 50 },
+      }
+    );
+    const items = response.data?.items || [];
+    setFollowers((prev) => (after ? [...prev, ...items] : items));
+    setFollowersCursor(response.data?.nextCursor ?? null);
+    setFollowersTotal(response.data?.total ?? 0);
+  };
+
+  // Loads the first page of following, or appends the next one when after is set
+  const fetchFollowingPage = async (after = null) => {
+    const response = await axios.get(
+      `http://localhost:8080/users/me/following`,
+      {
+        withCredentials: true,
+        params: { after, limit: 50 },
+      }
+    );
+    const items = response.data?.items || [];
+    setFollowing((prev) => (after ? [...prev, ...items] : items));
+    setFollowingCursor(response.data?.nextCursor ?? null);
+    setFollowingTotal(response.data?.total ?? 0);
+  };
+
+  const loadMore = async (fetchPage, cursor) => {
+    try {
+      await fetchPage(cursor);
+    } catch (err) {
+      console.error("Error loading more:", err);
+    }
+  };
+
   useEffect(() => {
     if (isChatOpen && user) {
       setMessages([]);
@@ -643,6 +671,16 @@ const Profile = () => {
               ))}
             </ul>
           )}
+          {followersCursor && (
+            <div className="p-4 flex justify-center">
+              <button
+                onClick={() => loadMore(fetchFollowersPage, followersCursor)}
+                className="text-gray-700 hover:text-gray-900 px-4 py-2 rounded-md border border-gray-200 hover:border-gray-300 bg-white hover:bg-gray-50 transition duration-150 text-sm"
+              >
+                Load more
+              </button>
+            </div>
+          )}
         </div>
       );
     case "following":
@@ -704,6 +742,16 @@ const Profile = () => {
               ))}
             </ul>
           )}
+          {followingCursor && (
+            <div className="p-4 flex justify-center">
+              <button
+                onClick={() => loadMore(fetchFollowingPage, followingCursor)}
+                className="text-gray-700 hover:text-gray-900 px-4 py-2 rounded-md border border-gray-200 hover:border-gray-300 bg-white hover:bg-gray-50 transition duration-150 text-sm"
+              >
+                Load more
+              </button>
+            </div>
+          )}
         </div>
       );
     default:
@@ -853,7 +901,7 @@ const Profile = () => {
                     </p>
                     <div className="flex items-end">
                       <p className="text-lg font-bold text-gray-800">
-                        {followers.length}
+                        {followersTotal}
                       </p>
                     </div>
                   </div>
@@ -882,7 +930,7 @@ const Profile = () => {
                     </p>
                     <div className="flex items-end">
                       <p className="text-lg font-bold text-gray-800">
-                        {following.length}
+                        {followingTotal}
                       </p>
                     </div>
                   </div>
@@ -984,7 +1032,7 @@ const Profile = () => {
               }`}
               onClick={() => setActiveTab("followers")}
             >
-              Followers ({followers.length})
+              Followers ({followersTotal})
             </button>
             <button
               className={`flex-1 py-3 text-sm font-medium text-center ${
@@ -994,7 +1042,7 @@ const Profile = () => {
               }`}
               onClick={() => setActiveTab("following")}
             >
-              Following ({following.length})
+              Following ({followingTotal})
             </button>
           </div>
           <div className="p-4">{renderActivityContent()}</div>